@@ -0,0 +1,122 @@
+package com.trading.chartapp.bench;
+
+import com.trading.chartapp.model.CandleSeries;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Random;
+
+/**
+ * Generated benchmark inputs: a seeded random walk of 1m candles with prices on a 0.01 tick and
+ * volumes in 0.001 lots, in memory or written to a SQLite file with the same schema as the
+ * exported per-symbol databases.
+ *
+ * Files are kept in {@code chartapp.bench.dir} (default target/jmh-fixtures) and reused by later
+ * runs. {@code main} generates one up front: {@code Fixtures <rows> [indexed]}.
+ */
+public final class Fixtures {
+    public static final String SYMBOL = "BENCHUSDT";
+    public static final String INTERVAL = "1m";
+    public static final String[] INDICATORS = {"SMA", "EMA", "RSI"};
+    public static final long START = 1_699_999_980_000L;
+    public static final long STEP = 60_000;
+    private static final long SEED = 42;
+
+    private Fixtures() {
+    }
+
+    public static CandleSeries series(int rows) {
+        CandleSeries s = new CandleSeries(rows);
+        Random random = new Random(SEED);
+        double price = 30_000;
+        for (int i = 0; i < rows; i++) {
+            double open = price;
+            double close = tick(Math.max(1, open + random.nextGaussian() * 15));
+            double high = tick(Math.max(open, close) + random.nextDouble() * 10);
+            double low = tick(Math.min(open, close) - random.nextDouble() * 10);
+            s.add(START + i * STEP, open, high, low, close, Math.round(random.nextDouble() * 100_000) / 1000.0);
+            price = close;
+        }
+        return s;
+    }
+
+    private static double tick(double price) {
+        return Math.round(price * 100) / 100.0;
+    }
+
+    public static Path database(int rows, boolean indexed) throws SQLException {
+        Path dir = Paths.get(System.getProperty("chartapp.bench.dir", "target/jmh-fixtures"));
+        Path file = dir.resolve("candles-" + rows + (indexed ? "-indexed" : "") + ".db").toAbsolutePath();
+        if (Files.exists(file)) return file;
+        try {
+            Files.createDirectories(dir);
+            Path tmp = Files.createTempFile(dir, "fixture", ".db");
+            Files.delete(tmp);
+            write(tmp, rows, indexed);
+            Files.move(tmp, file);
+        } catch (IOException e) {
+            throw new SQLException("Cannot write fixture " + file, e);
+        }
+        return file;
+    }
+
+    private static void write(Path file, int rows, boolean indexed) throws SQLException {
+        CandleSeries s = series(rows);
+        try (Connection connection = DriverManager.getConnection("jdbc:sqlite:" + file)) {
+            try (Statement stmt = connection.createStatement()) {
+                stmt.execute("PRAGMA journal_mode = OFF");
+                stmt.execute("PRAGMA synchronous = OFF");
+                stmt.execute("CREATE TABLE candles(symbol text, interval text, openTime integer, open real, high real, low real, close real, volume real)");
+                stmt.execute("CREATE TABLE indicators(symbol text, indicator text, timestamp integer, value real)");
+            }
+            connection.setAutoCommit(false);
+            try (PreparedStatement candles = connection.prepareStatement("INSERT INTO candles VALUES (?, ?, ?, ?, ?, ?, ?, ?)");
+                 PreparedStatement indicators = connection.prepareStatement("INSERT INTO indicators VALUES (?, ?, ?, ?)")) {
+                for (int i = 0; i < s.size(); i++) {
+                    candles.setString(1, SYMBOL);
+                    candles.setString(2, INTERVAL);
+                    candles.setLong(3, s.getTimestamp(i));
+                    candles.setDouble(4, s.getOpen(i));
+                    candles.setDouble(5, s.getHigh(i));
+                    candles.setDouble(6, s.getLow(i));
+                    candles.setDouble(7, s.getClose(i));
+                    candles.setDouble(8, s.getVolume(i));
+                    candles.addBatch();
+                    for (String name : INDICATORS) {
+                        indicators.setString(1, SYMBOL);
+                        indicators.setString(2, name);
+                        indicators.setLong(3, s.getTimestamp(i));
+                        indicators.setDouble(4, s.getClose(i));
+                        indicators.addBatch();
+                    }
+                    if (i % 10_000 == 9_999) {
+                        candles.executeBatch();
+                        indicators.executeBatch();
+                    }
+                }
+                candles.executeBatch();
+                indicators.executeBatch();
+            }
+            if (indexed) {
+                try (Statement stmt = connection.createStatement()) {
+                    stmt.execute("CREATE INDEX idx_candles ON candles(symbol, interval, openTime)");
+                    stmt.execute("CREATE INDEX idx_indicators ON indicators(symbol, indicator, timestamp)");
+                }
+            }
+            connection.commit();
+        }
+    }
+
+    public static void main(String[] args) throws SQLException {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        boolean indexed = args.length > 1 && Boolean.parseBoolean(args[1]);
+        System.out.println("[Fixtures] " + database(rows, indexed));
+    }
+}
@@ -0,0 +1,58 @@
+package com.trading.chartapp.bench;
+
+import com.trading.chartapp.model.CandleSeries;
+import com.trading.chartapp.model.CompactCandles;
+import com.trading.chartapp.ui.CandleGeometry;
+import com.trading.chartapp.ui.ChartScale;
+import com.trading.chartapp.ui.Decimator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Render preparation of the candle pane without a GraphicsContext: the per-candle coordinate
+ * mapping when every candle gets a slot, and decimation plus mapping once there are more
+ * visible candles than pixel columns. {@code storage=compact} reads the candles through the
+ * cache's compact encoding instead of plain columns.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GeometryBenchmark {
+    private static final int COLUMNS = 1200;
+    private static final double TOP = 20;
+    private static final double HEIGHT = 600;
+
+    @Param({"300", "100000", "1000000"})
+    public int visible;
+
+    @Param({"heap", "compact"})
+    public String storage;
+
+    private CandleSeries candles;
+    private final ChartScale scale = new ChartScale();
+    private final Decimator.CandleBuckets buckets = new Decimator.CandleBuckets();
+    private final CandleGeometry geometry = new CandleGeometry();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        candles = Fixtures.series(visible);
+        if ("compact".equals(storage)) candles = CompactCandles.encode(candles, Fixtures.STEP);
+        scale.setCandles(candles);
+        scale.update(0, visible, name -> false);
+    }
+
+    @Benchmark
+    public int layout() {
+        double min = scale.getPriceMin();
+        double max = scale.getPriceMax();
+        if (visible > COLUMNS) {
+            Decimator.decimateCandles(candles, 0, visible, COLUMNS, buckets);
+            return geometry.layout(buckets, COLUMNS, 0, 0, COLUMNS, TOP, HEIGHT, min, max);
+        }
+        return geometry.layout(candles, 0, visible, 0, 0, COLUMNS, TOP, HEIGHT, min, max);
+    }
+}
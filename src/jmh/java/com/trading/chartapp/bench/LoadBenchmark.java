@@ -0,0 +1,66 @@
+package com.trading.chartapp.bench;
+
+import com.trading.chartapp.db.SQLiteConnection;
+import com.trading.chartapp.model.CandleSeries;
+import com.trading.chartapp.model.IndicatorSeries;
+import com.trading.chartapp.model.Timeframe;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// SQLite read path against a generated fixture; a day is the default chart window
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoadBenchmark {
+    private static final int DAY_ROWS = 1440;
+    private static final List<String> NAMES = Arrays.asList(Fixtures.INDICATORS);
+
+    @Param({"100000"})
+    public int rows;
+
+    @Param({"true", "false"})
+    public boolean indexed;
+
+    private SQLiteConnection connection;
+    private long dayStart;
+    private long dayEnd;
+    private CandleSeries dayCandles;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = new SQLiteConnection();
+        connection.connectReadOnly(Fixtures.database(rows, indexed).toString());
+        int first = Math.max(0, rows / 2 - DAY_ROWS / 2);
+        dayStart = Fixtures.START + first * Fixtures.STEP;
+        dayEnd = dayStart + (Math.min(DAY_ROWS, rows) - 1) * Fixtures.STEP;
+        dayCandles = loadDay();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.disconnect();
+    }
+
+    @Benchmark
+    public CandleSeries loadDay() throws SQLException {
+        return connection.loadCandlesticks(Fixtures.SYMBOL, Timeframe.ONE_MIN, dayStart, dayEnd);
+    }
+
+    @Benchmark
+    public CandleSeries loadAll() throws SQLException {
+        return connection.loadCandlesticks(Fixtures.SYMBOL, Timeframe.ONE_MIN, Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    @Benchmark
+    public Map<String, IndicatorSeries> loadDayIndicators() throws SQLException {
+        return connection.loadIndicators(Fixtures.SYMBOL, Timeframe.ONE_MIN, dayStart, dayEnd, NAMES, dayCandles);
+    }
+}
@@ -0,0 +1,198 @@
+package com.trading.chartapp.bench;
+
+import com.trading.chartapp.indicator.IndicatorEngine;
+import com.trading.chartapp.indicator.IndicatorType;
+import com.trading.chartapp.model.CandleSeries;
+import com.trading.chartapp.model.ChartData;
+import com.trading.chartapp.model.Timeframe;
+import com.trading.chartapp.ui.ChartCanvas;
+import com.trading.chartapp.ui.FrameTimer;
+import javafx.application.Platform;
+import javafx.event.Event;
+import javafx.scene.image.WritableImage;
+import javafx.scene.input.MouseButton;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.input.PickResult;
+import javafx.scene.input.ScrollEvent;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Replays a mouse trace against a 3x3 grid of chart canvases filled with synthetic 1m data and
+ * reports frame times. Runs headless on Monocle with the software pipeline unless
+ * {@code -Dchartapp.replay.headless=false}.
+ *
+ * Each event is dispatched to the canvas under it and the canvas plus its overlay are then
+ * snapshotted, so a frame covers both drawing and rasterization. The trace is read from
+ * {@code chartapp.replay.trace} (as written with {@code -Dchartapp.trace.record}; scene
+ * coordinates are mapped onto the grid cells) or generated: sweeps across the charts with
+ * occasional zooms and pans. Other settings: {@code chartapp.replay.rows} (candles per chart,
+ * default 100000), {@code chartapp.replay.events} (generated events, default 3000).
+ * Text is laid out through Pango, so the host still needs the Pango libraries installed.
+ */
+public final class RenderReplay {
+    private static final int GRID = 3;
+    private static final double SCENE_WIDTH = 1250;
+    private static final double SCENE_HEIGHT = 900;
+    private static final int WARMUP_EVENTS = 500;
+
+    private static final class TraceEvent {
+        final String type;
+        final double x;
+        final double y;
+        final double deltaY;
+
+        TraceEvent(String type, double x, double y, double deltaY) {
+            this.type = type;
+            this.x = x;
+            this.y = y;
+            this.deltaY = deltaY;
+        }
+    }
+
+    private RenderReplay() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (Boolean.parseBoolean(System.getProperty("chartapp.replay.headless", "true"))) {
+            System.setProperty("glass.platform", "Monocle");
+            System.setProperty("monocle.platform", "Headless");
+            System.setProperty("prism.order", "sw");
+        }
+        int rows = Integer.getInteger("chartapp.replay.rows", 100_000);
+        String traceFile = System.getProperty("chartapp.replay.trace");
+        List<TraceEvent> trace = traceFile != null
+                ? readTrace(traceFile)
+                : generateTrace(Integer.getInteger("chartapp.replay.events", 3000));
+
+        CandleSeries candles = Fixtures.series(rows);
+        IndicatorEngine engine = new IndicatorEngine(14);
+        ChartData data = new ChartData(candles, engine.compute(Fixtures.SYMBOL, Timeframe.ONE_MIN, candles,
+                EnumSet.of(IndicatorType.SMA, IndicatorType.EMA, IndicatorType.BOLLINGER, IndicatorType.RSI, IndicatorType.MACD)));
+
+        CountDownLatch started = new CountDownLatch(1);
+        Platform.startup(started::countDown);
+        started.await();
+
+        long[][] result = new long[1][];
+        CountDownLatch done = new CountDownLatch(1);
+        Platform.runLater(() -> {
+            try {
+                result[0] = replay(data, trace);
+            } finally {
+                done.countDown();
+            }
+        });
+        done.await();
+        Platform.exit();
+
+        long[] frames = result[0];
+        Arrays.sort(frames);
+        System.out.printf(Locale.ROOT, "[RenderReplay] %d events, %d candles per chart, %d charts%n",
+                frames.length, rows, GRID * GRID);
+        System.out.printf(Locale.ROOT, "[RenderReplay] frame p50=%.0fus p90=%.0fus p99=%.0fus max=%.0fus%n",
+                FrameTimer.percentile(frames, 0.50), FrameTimer.percentile(frames, 0.90),
+                FrameTimer.percentile(frames, 0.99), FrameTimer.percentile(frames, 1.0));
+        System.out.println("[RenderReplay] " + FrameTimer.getInstance());
+    }
+
+    // Frame times in nanoseconds for every event after the warmup
+    private static long[] replay(ChartData data, List<TraceEvent> trace) {
+        double cellW = SCENE_WIDTH / GRID;
+        double cellH = SCENE_HEIGHT / GRID;
+        ChartCanvas[] canvases = new ChartCanvas[GRID * GRID];
+        WritableImage[] images = new WritableImage[canvases.length];
+        WritableImage[] overlays = new WritableImage[canvases.length];
+        for (int i = 0; i < canvases.length; i++) {
+            canvases[i] = new ChartCanvas(cellW, cellH);
+            canvases[i].setChartData(data);
+            images[i] = new WritableImage((int) cellW, (int) cellH);
+            overlays[i] = new WritableImage((int) cellW, (int) cellH);
+        }
+        int warmup = Math.min(WARMUP_EVENTS, trace.size() / 5);
+        long[] frames = new long[trace.size() - warmup];
+        for (int e = 0; e < trace.size(); e++) {
+            if (e == warmup) FrameTimer.getInstance().reset();
+            TraceEvent event = trace.get(e);
+            int col = (int) Math.max(0, Math.min(GRID - 1, event.x / cellW));
+            int row = (int) Math.max(0, Math.min(GRID - 1, event.y / cellH));
+            int i = row * GRID + col;
+            double x = event.x - col * cellW;
+            double y = event.y - row * cellH;
+            long start = System.nanoTime();
+            Event.fireEvent(canvases[i], toFxEvent(event, x, y));
+            canvases[i].snapshot(null, images[i]);
+            canvases[i].getOverlay().snapshot(null, overlays[i]);
+            if (e >= warmup) frames[e - warmup] = System.nanoTime() - start;
+        }
+        return frames;
+    }
+
+    private static Event toFxEvent(TraceEvent event, double x, double y) {
+        if ("scroll".equals(event.type)) {
+            return new ScrollEvent(ScrollEvent.SCROLL, x, y, x, y, false, false, false, false, false, false,
+                    0, event.deltaY, 0, event.deltaY, ScrollEvent.HorizontalTextScrollUnits.NONE, 0,
+                    ScrollEvent.VerticalTextScrollUnits.NONE, 0, 0, new PickResult(null, x, y));
+        }
+        javafx.event.EventType<MouseEvent> type;
+        switch (event.type) {
+            case "drag": type = MouseEvent.MOUSE_DRAGGED; break;
+            case "press": type = MouseEvent.MOUSE_PRESSED; break;
+            case "release": type = MouseEvent.MOUSE_RELEASED; break;
+            default: type = MouseEvent.MOUSE_MOVED;
+        }
+        boolean primary = type != MouseEvent.MOUSE_MOVED;
+        return new MouseEvent(type, x, y, x, y, primary ? MouseButton.PRIMARY : MouseButton.NONE, 1,
+                false, false, false, false, primary && type != MouseEvent.MOUSE_RELEASED, false, false,
+                false, false, false, null);
+    }
+
+    private static List<TraceEvent> readTrace(String file) throws IOException {
+        List<TraceEvent> trace = new ArrayList<>();
+        for (String line : Files.readAllLines(Paths.get(file))) {
+            String[] f = line.trim().split("\\s+");
+            if (f.length < 5) continue;
+            trace.add(new TraceEvent(f[1], Double.parseDouble(f[2]), Double.parseDouble(f[3]), Double.parseDouble(f[4])));
+        }
+        return trace;
+    }
+
+    // Horizontal sweeps over random charts; every 100 events a zoom, every 400 a short pan
+    private static List<TraceEvent> generateTrace(int events) {
+        Random random = new Random(11);
+        List<TraceEvent> trace = new ArrayList<>(events);
+        double cellW = SCENE_WIDTH / GRID;
+        double cellH = SCENE_HEIGHT / GRID;
+        while (trace.size() < events) {
+            int col = random.nextInt(GRID);
+            int row = random.nextInt(GRID);
+            double left = col * cellW + 70;
+            double right = (col + 1) * cellW - 30;
+            double y = row * cellH + 20 + random.nextDouble() * (cellH * 0.5);
+            double x = left;
+            while (x < right && trace.size() < events) {
+                int n = trace.size();
+                if (n % 400 == 399) {
+                    trace.add(new TraceEvent("press", x, y, 0));
+                    for (int k = 1; k <= 10; k++) trace.add(new TraceEvent("drag", x - k * 4, y, 0));
+                    trace.add(new TraceEvent("release", x - 40, y, 0));
+                } else if (n % 100 == 99) {
+                    trace.add(new TraceEvent("scroll", x, y, random.nextBoolean() ? 40 : -40));
+                } else {
+                    trace.add(new TraceEvent("move", x, y + random.nextGaussian(), 0));
+                }
+                x += 2 + random.nextInt(4);
+            }
+        }
+        return trace;
+    }
+}
@@ -0,0 +1,67 @@
+package com.trading.chartapp.bench;
+
+import com.trading.chartapp.model.CandleSeries;
+import com.trading.chartapp.ui.ChartScale;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Price bounds for a viewport: building the range trees once per data set, then querying per pan/zoom
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScaleBenchmark {
+    private static final int WINDOWS = 1024;
+
+    @Param({"100000", "1000000"})
+    public int rows;
+
+    private CandleSeries candles;
+    private final ChartScale scale = new ChartScale();
+    private final int[] windowFrom = new int[WINDOWS];
+    private final int[] windowTo = new int[WINDOWS];
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        candles = Fixtures.series(rows);
+        scale.setCandles(candles);
+        Random random = new Random(7);
+        for (int i = 0; i < WINDOWS; i++) {
+            int a = random.nextInt(rows);
+            int b = random.nextInt(rows);
+            windowFrom[i] = Math.min(a, b);
+            windowTo[i] = Math.max(a, b) + 1;
+        }
+    }
+
+    @Benchmark
+    public ChartScale build() {
+        ChartScale fresh = new ChartScale();
+        fresh.setCandles(candles);
+        return fresh;
+    }
+
+    @Benchmark
+    public double update() {
+        int w = next++ & (WINDOWS - 1);
+        scale.update(windowFrom[w], windowTo[w], name -> false);
+        return scale.getPriceMax() - scale.getPriceMin();
+    }
+
+    // Baseline: a linear scan of the same window
+    @Benchmark
+    public double scan() {
+        int w = next++ & (WINDOWS - 1);
+        double min = Double.POSITIVE_INFINITY, max = Double.NEGATIVE_INFINITY;
+        for (int i = windowFrom[w]; i < windowTo[w]; i++) {
+            min = Math.min(min, candles.getLow(i));
+            max = Math.max(max, candles.getHigh(i));
+        }
+        return max - min;
+    }
+}
@@ -0,0 +1,226 @@
+package com.trading.chartapp.cache;
+
+import com.trading.chartapp.model.TimeSeries;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Memory-bounded cache of time ranges per {@link SeriesKey}.
+ *
+ * Each key holds a sorted list of disjoint segments, each one covering an inclusive
+ * [start, end] time range. A request fully inside one segment is served from memory; otherwise
+ * only the uncovered gaps are loaded and merged with the neighbouring segments. Segments are
+ * evicted in least-recently-used order once their estimated size exceeds the byte budget.
+ * An optional {@link Compactor} re-encodes each stored segment to fit more of them in the budget.
+ */
+public class RangeCache<S extends TimeSeries<S>> {
+
+    @FunctionalInterface
+    public interface Loader<S> {
+        S load(long start, long end) throws IOException, SQLException;
+    }
+
+    @FunctionalInterface
+    public interface Compactor<S> {
+        // A smaller equivalent of the series, or null to store it as it is
+        S compact(SeriesKey key, S series);
+    }
+
+    private static final class Segment<S> {
+        final SeriesKey key;
+        final long start;
+        final long end;
+        final S series;
+        final long bytes;
+
+        Segment(SeriesKey key, long start, long end, S series, long bytes) {
+            this.key = key;
+            this.start = start;
+            this.end = end;
+            this.series = series;
+            this.bytes = bytes;
+        }
+    }
+
+    private final String name;
+    private final long maxBytes;
+    private final Compactor<S> compactor;
+    private final Map<SeriesKey, List<Segment<S>>> segments = new HashMap<>();
+    // Access-ordered, so iteration starts at the least recently used segment
+    private final LinkedHashMap<Segment<S>, Boolean> lru = new LinkedHashMap<>(16, 0.75f, true);
+    private long usedBytes = 0;
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+
+    public RangeCache(String name, long maxBytes) {
+        this(name, maxBytes, null);
+    }
+
+    public RangeCache(String name, long maxBytes, Compactor<S> compactor) {
+        this.name = name;
+        this.maxBytes = maxBytes;
+        this.compactor = compactor;
+    }
+
+    public S get(SeriesKey key, long start, long end, Loader<S> loader) throws IOException, SQLException {
+        List<Segment<S>> overlapping;
+        synchronized (this) {
+            overlapping = overlapping(key, start, end);
+            for (Segment<S> seg : overlapping) {
+                if (seg.start <= start && seg.end >= end) {
+                    hits++;
+                    lru.get(seg);
+                    return sliceToRange(seg.series, start, end);
+                }
+            }
+            misses++;
+        }
+
+        // Load only the parts of [start, end] that no segment covers
+        List<S> pieces = new ArrayList<>();
+        long cursor = start;
+        boolean covered = false;
+        for (Segment<S> seg : overlapping) {
+            if (seg.start > cursor) {
+                pieces.add(loadGap(key, cursor, seg.start - 1, loader));
+            }
+            pieces.add(sliceToRange(seg.series, start, end));
+            if (seg.end >= end) {
+                covered = true;
+                break;
+            }
+            cursor = seg.end + 1;
+        }
+        if (!covered) {
+            pieces.add(loadGap(key, cursor, end, loader));
+        }
+
+        S result = pieces.get(0);
+        for (int i = 1; i < pieces.size(); i++) {
+            result = result.merge(pieces.get(i));
+        }
+        // Never hand out the cached instance itself
+        return pieces.size() == 1 ? result.slice(0, result.size()) : result;
+    }
+
+    private S loadGap(SeriesKey key, long start, long end, Loader<S> loader) throws IOException, SQLException {
+        S loaded = loader.load(start, end);
+        put(key, start, end, loaded);
+        return loaded;
+    }
+
+    // Inserts a range, merging it with any segment it overlaps or touches
+    public synchronized void put(SeriesKey key, long start, long end, S series) {
+        List<Segment<S>> list = segments.computeIfAbsent(key, k -> new ArrayList<>());
+        long mergedStart = start;
+        long mergedEnd = end;
+        S merged = series;
+        Iterator<Segment<S>> it = list.iterator();
+        while (it.hasNext()) {
+            Segment<S> seg = it.next();
+            boolean touches = seg.start <= saturatedInc(end) && saturatedInc(seg.end) >= start;
+            if (!touches) continue;
+            it.remove();
+            lru.remove(seg);
+            usedBytes -= seg.bytes;
+            mergedStart = Math.min(mergedStart, seg.start);
+            mergedEnd = Math.max(mergedEnd, seg.end);
+            // Freshly loaded rows win over cached ones
+            merged = seg.series.merge(merged);
+        }
+        if (compactor != null) {
+            S compact = compactor.compact(key, merged);
+            if (compact != null && compact.estimatedBytes() < merged.estimatedBytes()) merged = compact;
+        }
+        Segment<S> segment = new Segment<>(key, mergedStart, mergedEnd, merged, merged.estimatedBytes());
+        int pos = 0;
+        while (pos < list.size() && list.get(pos).start < mergedStart) pos++;
+        list.add(pos, segment);
+        lru.put(segment, Boolean.TRUE);
+        usedBytes += segment.bytes;
+        evictToBudget();
+    }
+
+    // Whether one segment holds all of [start, end]; does not count as a hit or touch the segment
+    public synchronized boolean covers(SeriesKey key, long start, long end) {
+        for (Segment<S> seg : overlapping(key, start, end)) {
+            if (seg.start <= start && seg.end >= end) return true;
+        }
+        return false;
+    }
+
+    public synchronized void invalidate(SeriesKey key) {
+        List<Segment<S>> list = segments.remove(key);
+        if (list == null) return;
+        for (Segment<S> seg : list) {
+            lru.remove(seg);
+            usedBytes -= seg.bytes;
+        }
+    }
+
+    public synchronized void clear() {
+        segments.clear();
+        lru.clear();
+        usedBytes = 0;
+    }
+
+    public synchronized long getHits() { return hits; }
+    public synchronized long getMisses() { return misses; }
+    public synchronized long getEvictions() { return evictions; }
+    public synchronized long getUsedBytes() { return usedBytes; }
+    public long getMaxBytes() { return maxBytes; }
+    public synchronized int getSegmentCount() { return lru.size(); }
+
+    public synchronized double getHitRatio() {
+        long total = hits + misses;
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("%s cache: %d hits, %d misses (%.1f%% hit ratio), %d evictions, %d segments, %.1f/%.1f MB",
+                name, hits, misses, getHitRatio() * 100, evictions, lru.size(),
+                usedBytes / (1024.0 * 1024.0), maxBytes / (1024.0 * 1024.0));
+    }
+
+    private List<Segment<S>> overlapping(SeriesKey key, long start, long end) {
+        List<Segment<S>> result = new ArrayList<>();
+        List<Segment<S>> list = segments.get(key);
+        if (list == null) return result;
+        for (Segment<S> seg : list) {
+            if (seg.start <= end && seg.end >= start) result.add(seg);
+        }
+        return result;
+    }
+
+    private void evictToBudget() {
+        Iterator<Segment<S>> it = lru.keySet().iterator();
+        while (usedBytes > maxBytes && it.hasNext()) {
+            Segment<S> seg = it.next();
+            it.remove();
+            usedBytes -= seg.bytes;
+            evictions++;
+            List<Segment<S>> list = segments.get(seg.key);
+            if (list != null) {
+                list.remove(seg);
+                if (list.isEmpty()) segments.remove(seg.key);
+            }
+        }
+    }
+
+    private S sliceToRange(S series, long start, long end) {
+        return series.slice(series.lowerBound(start), series.upperBound(end));
+    }
+
+    private static long saturatedInc(long value) {
+        return value == Long.MAX_VALUE ? value : value + 1;
+    }
+}
@@ -0,0 +1,43 @@
+package com.trading.chartapp.cache;
+
+import com.trading.chartapp.model.Timeframe;
+
+import java.util.Objects;
+
+/**
+ * Identifies one cached series: a symbol, a timeframe and the series name
+ * (for example {@code "candles"} or an indicator name).
+ */
+public final class SeriesKey {
+    private final String symbol;
+    private final Timeframe timeframe;
+    private final String series;
+
+    public SeriesKey(String symbol, Timeframe timeframe, String series) {
+        this.symbol = symbol;
+        this.timeframe = timeframe;
+        this.series = series;
+    }
+
+    public String getSymbol() { return symbol; }
+    public Timeframe getTimeframe() { return timeframe; }
+    public String getSeries() { return series; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof SeriesKey)) return false;
+        SeriesKey other = (SeriesKey) o;
+        return symbol.equals(other.symbol) && timeframe == other.timeframe && series.equals(other.series);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(symbol, timeframe, series);
+    }
+
+    @Override
+    public String toString() {
+        return symbol + "/" + timeframe + "/" + series;
+    }
+}
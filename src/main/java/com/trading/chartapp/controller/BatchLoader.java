@@ -0,0 +1,169 @@
+package com.trading.chartapp.controller;
+
+import com.trading.chartapp.db.SQLiteConnectionPool;
+import com.trading.chartapp.model.CandleSeries;
+import com.trading.chartapp.model.ChartData;
+import com.trading.chartapp.model.OffHeapCandles;
+import javafx.application.Platform;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.function.Consumer;
+
+/**
+ * Coalesces the chart loads requested by all panels. Requests made during one FX pulse are
+ * collected and dispatched together: identical {@link LoadRequest}s, including ones already
+ * running, share a single query, and the distinct queries are grouped per database file. Each
+ * file gets one {@link DataLoader} task, since its pooled connection serializes them anyway, so
+ * different symbols load in parallel. Every caller is answered on the FX thread as soon as its
+ * own query is done, and each gets its own candle series, since live updates write into it. A
+ * query whose callers have all cancelled is skipped, or aborted if it is already running, so it
+ * does not hold its database file while newer loads wait.
+ *
+ * Used from the FX thread only.
+ */
+public final class BatchLoader {
+    // Waiting for the end of the pulse
+    private static final Map<LoadRequest, Query> queued = new LinkedHashMap<>();
+    // Dispatched and not yet answered
+    private static final Map<LoadRequest, Query> running = new HashMap<>();
+    private static boolean flushScheduled = false;
+
+    private static final class Query {
+        final LoadRequest request;
+        final Callable<ChartData> work;
+        final List<Ticket> tickets = new ArrayList<>();
+        // Set once every caller has cancelled; a query that has not started yet is then skipped
+        volatile boolean cancelled = false;
+        // The loader thread while the query runs
+        volatile Thread worker;
+
+        Query(LoadRequest request, Callable<ChartData> work) {
+            this.request = request;
+            this.work = work;
+        }
+    }
+
+    // One caller's interest in a query
+    public static final class Ticket {
+        private final Query query;
+        private final Consumer<ChartData> onSuccess;
+        private final Consumer<Exception> onError;
+
+        private Ticket(Query query, Consumer<ChartData> onSuccess, Consumer<Exception> onError) {
+            this.query = query;
+            this.onSuccess = onSuccess;
+            this.onError = onError;
+        }
+
+        // Drops this caller's callbacks; the query itself is abandoned once nobody waits for it
+        public void cancel() {
+            query.tickets.remove(this);
+            if (!query.tickets.isEmpty()) return;
+            query.cancelled = true;
+            // Locked against the worker moving on, so the abort cannot hit its next query
+            synchronized (query) {
+                if (query.worker != null) SQLiteConnectionPool.getInstance().cancel(query.worker);
+            }
+        }
+    }
+
+    private BatchLoader() {
+    }
+
+    /**
+     * Schedules {@code work} for {@code request}, or joins an identical request that is queued
+     * or running. The work of the first caller is the one that runs.
+     */
+    public static Ticket submit(LoadRequest request, Callable<ChartData> work,
+                                Consumer<ChartData> onSuccess, Consumer<Exception> onError) {
+        Query query = running.get(request);
+        if (query == null || query.cancelled) {
+            query = queued.get(request);
+        }
+        if (query == null || query.cancelled) {
+            query = new Query(request, work);
+            queued.put(request, query);
+            scheduleFlush();
+        }
+        Ticket ticket = new Ticket(query, onSuccess, onError);
+        query.tickets.add(ticket);
+        return ticket;
+    }
+
+    private static void scheduleFlush() {
+        if (flushScheduled) return;
+        flushScheduled = true;
+        Platform.runLater(BatchLoader::flush);
+    }
+
+    private static void flush() {
+        flushScheduled = false;
+        Map<String, List<Query>> byDatabase = new LinkedHashMap<>();
+        int callers = 0;
+        for (Query query : queued.values()) {
+            if (query.cancelled) continue;
+            callers += query.tickets.size();
+            running.put(query.request, query);
+            byDatabase.computeIfAbsent(query.request.getDbPath(), k -> new ArrayList<>()).add(query);
+        }
+        queued.clear();
+        if (byDatabase.isEmpty()) return;
+        System.out.println("[BatchLoader] " + callers + " requests -> " + running.size() + " queries on "
+                + byDatabase.size() + " databases");
+        for (List<Query> queries : byDatabase.values()) {
+            DataLoader.execute(() -> runAll(queries));
+        }
+    }
+
+    // Runs on a loader thread; each result is handed to the FX thread as soon as it is ready
+    private static void runAll(List<Query> queries) {
+        for (Query query : queries) {
+            // Published before the check, so a cancel either skips the query or sees the worker
+            query.worker = Thread.currentThread();
+            if (query.cancelled) {
+                query.worker = null;
+                Platform.runLater(() -> running.remove(query.request, query));
+                continue;
+            }
+            try {
+                ChartData data = query.work.call();
+                Platform.runLater(() -> deliver(query, data, null));
+            } catch (Exception e) {
+                Platform.runLater(() -> deliver(query, null, e));
+            } finally {
+                // An abort is meant for this query only, not for the next one in the batch
+                synchronized (query) {
+                    query.worker = null;
+                    Thread.interrupted();
+                }
+            }
+        }
+    }
+
+    private static void deliver(Query query, ChartData data, Exception error) {
+        running.remove(query.request, query);
+        boolean first = true;
+        for (Ticket ticket : new ArrayList<>(query.tickets)) {
+            if (error != null) {
+                ticket.onError.accept(error);
+            } else {
+                ticket.onSuccess.accept(first ? data : copyFor(data));
+                first = false;
+            }
+        }
+        query.tickets.clear();
+    }
+
+    // Heap rows are copied and off-heap rows get another holder; a view copies rows on its first write
+    private static ChartData copyFor(ChartData data) {
+        CandleSeries candles = data.getCandles();
+        CandleSeries own = OffHeapCandles.share(candles);
+        if (own == null) own = candles.slice(0, candles.size());
+        return new ChartData(own, data.getIndicators(), data.getAvailableIndicators());
+    }
+}
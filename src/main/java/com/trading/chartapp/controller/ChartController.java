@@ -1,18 +1,39 @@
 package com.trading.chartapp.controller;
 
-import com.trading.chartapp.db.SQLiteConnection;
-import com.trading.chartapp.model.Candlestick;
+import com.trading.chartapp.db.MarketDataRepository;
+import com.trading.chartapp.indicator.IndicatorComputer;
+import com.trading.chartapp.indicator.IndicatorEngine;
+import com.trading.chartapp.indicator.IndicatorType;
+import com.trading.chartapp.model.CandleSeries;
 import com.trading.chartapp.model.ChartData;
 import com.trading.chartapp.model.Indicator;
+import com.trading.chartapp.model.IndicatorSeries;
+import com.trading.chartapp.model.OffHeapCandles;
 import com.trading.chartapp.model.Timeframe;
 import com.trading.chartapp.ui.ChartCanvas;
+import javafx.animation.PauseTransition;
+import javafx.util.Duration;
 
+import java.io.IOException;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Set;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
 
 public class ChartController {
-    private SQLiteConnection db;
+    // State changes arriving within this window are collapsed into a single load
+    private static final Duration RELOAD_DEBOUNCE = Duration.millis(Long.getLong("chartapp.reload.debounceMs", 40));
+    // With -Dchartapp.offheap=true, loaded windows of at least this many candles are kept off-heap
+    private static final boolean OFF_HEAP = Boolean.getBoolean("chartapp.offheap");
+    private static final int OFF_HEAP_MIN_ROWS = Integer.getInteger("chartapp.offheap.minRows", 50_000);
+
     private ChartCanvas chartCanvas;
     private String currentPair;
     private Timeframe currentTimeframe;
@@ -20,59 +41,415 @@ public class ChartController {
     private int currentPeriod = 14;
     private long startDate = -1;
     private long endDate = -1;
+    // Only touched on the FX thread; a result is applied only if its generation is still current
+    private long loadGeneration = 0;
+    private BatchLoader.Ticket pendingLoad;
+    // A prefetch of the requested window that was still running when the load was requested
+    private Future<ChartData> awaitedPrefetch;
+    private Consumer<Boolean> onLoadingChanged;
+    private Runnable onDataLoaded;
+    private final Prefetcher prefetcher = new Prefetcher();
+    private List<String> availableIndicators = Collections.emptyList();
+    private final PauseTransition reloadDebounce = new PauseTransition(RELOAD_DEBOUNCE);
+    // The request that was last started; a debounced reload for the same request is skipped
+    private LoadRequest lastRequest;
+    private LiveCandleStream liveStream;
+    private final IndicatorEngine indicatorEngine = new IndicatorEngine(currentPeriod);
+    private static final long DAY_MS = 24 * 60 * 60 * 1000L;
+    // Further canvases showing this controller's data, e.g. a panel's fullscreen window
+    private final List<View> views = new ArrayList<>();
+    // This panel's hold on the native rows it shows; released when replaced or when the panel is disposed
+    private OffHeapCandles ownedCandles;
+
+    private static final class View {
+        final ChartCanvas canvas;
+        final Runnable onDataLoaded;
+        final Consumer<Boolean> onLoadingChanged;
+
+        View(ChartCanvas canvas, Runnable onDataLoaded, Consumer<Boolean> onLoadingChanged) {
+            this.canvas = canvas;
+            this.onDataLoaded = onDataLoaded;
+            this.onLoadingChanged = onLoadingChanged;
+        }
+    }
 
     public ChartController(ChartCanvas chartCanvas, String dbPath) {
         this.chartCanvas = chartCanvas;
         this.dbPath = dbPath;
-        this.db = new SQLiteConnection();
+        reloadDebounce.setOnFinished(e -> flushReload());
+        // Computed indicators stay hidden until switched on, so nothing is computed by default
+        for (String name : IndicatorEngine.outputNames()) {
+            chartCanvas.setIndicatorDefault(name, false);
+        }
+    }
+
+    /**
+     * Records the desired pair, timeframe and range and schedules a reload. Any number of
+     * calls within the debounce window result in one query for the final state, and none
+     * at all if that state is already loaded or loading.
+     */
+    public void requestLoad(String pair, Timeframe tf, long startDate, long endDate) {
+        this.currentPair = pair;
+        this.currentTimeframe = tf;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        scheduleReload();
+    }
+
+    private void scheduleReload() {
+        reloadDebounce.playFromStart();
+    }
+
+    private void flushReload() {
+        if (currentPair == null || currentTimeframe == null) return;
+        LoadRequest request = new LoadRequest(dbPath, currentPair, currentTimeframe, startDate, endDate,
+                chartCanvas.getDisabledIndicators());
+        if (request.equals(lastRequest)) return;
+        loadData(currentPair, currentTimeframe, startDate, endDate);
     }
 
     public void loadData(String pair, Timeframe tf, long startDate, long endDate) {
-        try {
-            System.out.println("[ChartController] Connecting to DB: " + dbPath);
-            System.out.println("[ChartController] Loading data for symbol: " + pair + ", timeframe: " + tf + ", start: " + startDate + ", end: " + endDate);
-            db.connect(dbPath);
-            List<Candlestick> candles = db.loadCandlesticks(pair, tf, startDate, endDate);
-            System.out.println("[ChartController] Loaded " + candles.size() + " candles");
-            Map<String, Indicator> indicators = db.loadIndicators(pair, tf, startDate, endDate);
-            System.out.println("[ChartController] Loaded " + indicators.size() + " indicators");
-            chartCanvas.drawCandlesticks(candles);
-            chartCanvas.drawIndicators(indicators);
-            this.currentPair = pair;
-            this.currentTimeframe = tf;
-            this.startDate = startDate;
-            this.endDate = endDate;
-            db.disconnect();
-        } catch (SQLException e) {
-            e.printStackTrace();
+        this.currentPair = pair;
+        this.currentTimeframe = tf;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        reloadDebounce.stop();
+        cancelPendingLoad();
+        long generation = ++loadGeneration;
+        LoadRequest request = new LoadRequest(dbPath, pair, tf, startDate, endDate, chartCanvas.getDisabledIndicators());
+        lastRequest = request;
+        Future<ChartData> prefetched = prefetcher.take(request);
+        if (prefetched != null && prefetched.isDone() && !prefetched.isCancelled()) {
+            try {
+                System.out.println("[ChartController] Using prefetched data for " + request);
+                applyData(request, prefetched.get());
+                return;
+            } catch (Exception e) {
+                // Fall through to a regular load
+            }
+        }
+        setLoading(true);
+        // A prefetch that is still running is awaited instead of issuing the same query again
+        if (prefetched != null && !prefetched.isDone()) {
+            awaitPrefetch(request, generation, prefetched);
+        } else {
+            submitLoad(request, generation);
+        }
+    }
+
+    /**
+     * Waits for a running prefetch on a loader thread of its own, so the per-database batch that
+     * other panels' loads go through is not held by it. A prefetch that fails or is cancelled
+     * falls back to a regular load.
+     */
+    private void awaitPrefetch(LoadRequest request, long generation, Future<ChartData> prefetched) {
+        awaitedPrefetch = prefetched;
+        DataLoader.submit(
+                prefetched::get,
+                data -> {
+                    if (generation != loadGeneration) return;
+                    awaitedPrefetch = null;
+                    setLoading(false);
+                    applyData(request, data);
+                },
+                error -> {
+                    if (generation != loadGeneration) return;
+                    awaitedPrefetch = null;
+                    submitLoad(request, generation);
+                });
+    }
+
+    private void submitLoad(LoadRequest request, long generation) {
+        pendingLoad = BatchLoader.submit(
+                request,
+                offHeap(withComputedIndicators(() -> queryData(request), request)),
+                data -> {
+                    if (generation != loadGeneration) return;
+                    pendingLoad = null;
+                    setLoading(false);
+                    applyData(request, data);
+                },
+                error -> {
+                    if (generation != loadGeneration) return;
+                    pendingLoad = null;
+                    lastRequest = null;
+                    setLoading(false);
+                    error.printStackTrace();
+                });
+    }
+
+    private void applyData(LoadRequest request, ChartData data) {
+        List<String> available = new ArrayList<>(data.getAvailableIndicators());
+        available.addAll(IndicatorEngine.outputNames());
+        availableIndicators = available;
+        Map<String, IndicatorSeries> indicators = new HashMap<>(data.getIndicators());
+        indicators.putAll(indicatorEngine.compute(request.getPair(), request.getTimeframe(), data.getCandles(),
+                enabledComputedTypes()));
+        ChartData shown = new ChartData(data.getCandles(), indicators, available);
+        chartCanvas.setChartData(shown);
+        for (View view : views) view.canvas.setChartData(shown);
+        OffHeapCandles previous = ownedCandles;
+        ownedCandles = OffHeapCandles.of(data.getCandles());
+        if (previous != null && previous != ownedCandles) previous.release();
+        if (onDataLoaded != null) onDataLoaded.run();
+        for (View view : views) {
+            if (view.onDataLoaded != null) view.onDataLoaded.run();
+        }
+        prefetcher.prefetchAround(request, r -> offHeap(withComputedIndicators(() -> queryData(r), r)));
+    }
+
+    // Moves large candle windows into native memory once the loader thread is done with them. A
+    // window read through a cached segment is left alone, since it holds no rows of its own; a
+    // heap copy of cached rows is moved, but the cache keeps its rows on the heap until evicted.
+    private static Callable<ChartData> offHeap(Callable<ChartData> query) {
+        if (!OFF_HEAP) return query;
+        return () -> {
+            ChartData data = query.call();
+            if (data.getCandles().size() < OFF_HEAP_MIN_ROWS || data.getCandles().isView()) return data;
+            CandleSeries copy = OffHeapCandles.copyOf(data.getCandles());
+            if (copy == null) return data;
+            return new ChartData(copy, data.getIndicators(), data.getAvailableIndicators());
+        };
+    }
+
+    // Fills the shared indicator cache on the loader thread, so applyData only picks the results up
+    private Callable<ChartData> withComputedIndicators(Callable<ChartData> query, LoadRequest request) {
+        Set<IndicatorType> types = enabledComputedTypes();
+        int period = currentPeriod;
+        if (types.isEmpty()) return query;
+        return () -> {
+            ChartData data = query.call();
+            IndicatorComputer.compute(request.getPair(), request.getTimeframe(), data.getCandles(), types, period);
+            return data;
+        };
+    }
+
+    private static ChartData queryData(LoadRequest request) throws IOException, SQLException {
+        String dbPath = request.getDbPath();
+        String pair = request.getPair();
+        Timeframe tf = request.getTimeframe();
+        long startDate = request.getStartDate();
+        long endDate = request.getEndDate();
+        System.out.println("[ChartController] Loading data for symbol: " + pair + ", timeframe: " + tf + ", start: " + startDate + ", end: " + endDate + " from " + dbPath);
+        MarketDataRepository repository = MarketDataRepository.getInstance();
+        CandleSeries candles = repository.loadCandles(dbPath, pair, tf, startDate, endDate);
+        System.out.println("[ChartController] Loaded " + candles.size() + " candles; " + repository.getCandleCache());
+        List<String> available = repository.listIndicators(dbPath, pair);
+        List<String> enabled = new ArrayList<>();
+        for (String name : available) {
+            if (!request.getDisabledIndicators().contains(name)) enabled.add(name);
+        }
+        Map<String, IndicatorSeries> indicators = repository.loadIndicators(dbPath, pair, tf, startDate, endDate, enabled, candles);
+        System.out.println("[ChartController] Loaded " + indicators.size() + " of " + available.size() + " indicators");
+        return new ChartData(candles, indicators, available);
+    }
+
+    // Follows a live feed: events for the current pair update the forming bar and append new bars
+    public void startLive(LiveFeed feed) {
+        stopLive();
+        liveStream = new LiveCandleStream(feed, this::applyLiveEvents);
+    }
+
+    public void stopLive() {
+        if (liveStream != null) {
+            liveStream.close();
+            liveStream = null;
+        }
+    }
+
+    private void applyLiveEvents(List<MarketEvent> events) {
+        CandleSeries candles = chartCanvas.getCandles();
+        // Live bars only extend a range that reaches today; a historical window stays as loaded
+        if (candles == null || currentTimeframe == null || endDate + DAY_MS <= System.currentTimeMillis()) return;
+        int firstChanged = Integer.MAX_VALUE;
+        for (MarketEvent event : events) {
+            if (!event.getSymbol().equals(currentPair)) continue;
+            int changed = LiveCandleStream.apply(candles, event, currentTimeframe);
+            if (changed >= 0) firstChanged = Math.min(firstChanged, changed);
+        }
+        if (firstChanged == Integer.MAX_VALUE) return;
+        // The first live write copied the rows back onto the heap; other panels keep their hold
+        if (ownedCandles != null && OffHeapCandles.of(candles) == null) {
+            ownedCandles.release();
+            ownedCandles = null;
+        }
+        indicatorEngine.update(candles, firstChanged);
+        chartCanvas.candlesUpdated(firstChanged);
+        for (View view : views) view.canvas.candlesUpdated(firstChanged);
+    }
+
+    public void cancelPendingLoad() {
+        loadGeneration++;
+        if (awaitedPrefetch != null) {
+            // The prefetcher handed it over, so no one else waits for it
+            lastRequest = null;
+            awaitedPrefetch.cancel(true);
+            awaitedPrefetch = null;
+            setLoading(false);
+        }
+        if (pendingLoad != null) {
+            lastRequest = null;
+            pendingLoad.cancel();
+            pendingLoad = null;
+            setLoading(false);
         }
     }
 
+    public void setPrefetchDepth(int depth) {
+        prefetcher.setDepth(depth);
+    }
+
+    /**
+     * Shows this controller's data on another canvas as well. The canvas reuses the loaded
+     * series and indicator objects, so attaching does not query or copy anything; later loads,
+     * live updates and indicator changes are applied to it too. The callbacks may be null.
+     */
+    public void attachView(ChartCanvas canvas, Runnable onDataLoaded, Consumer<Boolean> onLoadingChanged) {
+        canvas.shareDataWith(chartCanvas);
+        views.add(new View(canvas, onDataLoaded, onLoadingChanged));
+        if (onLoadingChanged != null) onLoadingChanged.accept(isLoading());
+    }
+
+    public void detachView(ChartCanvas canvas) {
+        views.removeIf(view -> view.canvas == canvas);
+    }
+
+    // Stops all background work owned by this controller and frees its off-heap rows
+    public void dispose() {
+        reloadDebounce.stop();
+        stopLive();
+        cancelPendingLoad();
+        prefetcher.cancelAll();
+        if (ownedCandles != null) {
+            // No canvas may read the rows after they are freed
+            ChartData empty = new ChartData(new CandleSeries(), Collections.emptyMap());
+            chartCanvas.setChartData(empty);
+            for (View view : views) view.canvas.setChartData(empty);
+            ownedCandles.release();
+            ownedCandles = null;
+        }
+        views.clear();
+    }
+
+    public boolean isLoading() {
+        return pendingLoad != null || awaitedPrefetch != null;
+    }
+
+    public void setOnLoadingChanged(Consumer<Boolean> onLoadingChanged) {
+        this.onLoadingChanged = onLoadingChanged;
+    }
+
+    public void setOnDataLoaded(Runnable onDataLoaded) {
+        this.onDataLoaded = onDataLoaded;
+    }
+
+    private void setLoading(boolean loading) {
+        if (onLoadingChanged != null) onLoadingChanged.accept(loading);
+        for (View view : views) {
+            if (view.onLoadingChanged != null) view.onLoadingChanged.accept(loading);
+        }
+    }
+
+    public void setDbPath(String dbPath) {
+        this.dbPath = dbPath;
+    }
+
+    public String getDbPath() {
+        return dbPath;
+    }
+
+    public List<String> getAvailableIndicators() {
+        return availableIndicators;
+    }
+
+    // Disabled indicators are hidden and skipped by later loads; enabling one that is not loaded yet
+    // computes it in process or, for database indicators, reloads
+    public void setIndicatorEnabled(String name, boolean enabled) {
+        chartCanvas.setIndicatorEnabled(name, enabled);
+        for (View view : views) view.canvas.setIndicatorEnabled(name, enabled);
+        if (!enabled || chartCanvas.getIndicators().containsKey(name)) return;
+        IndicatorType type = IndicatorType.ofOutput(name);
+        if (type == null) {
+            scheduleReload();
+        } else {
+            computeIndicators(EnumSet.of(type));
+        }
+    }
+
+    /**
+     * Computes indicators for the shown candles on a loader thread, so a cache miss never
+     * blocks the FX thread, and adds them once done. Results for a series or period that was
+     * replaced meanwhile are dropped.
+     */
+    private void computeIndicators(Set<IndicatorType> types) {
+        CandleSeries candles = chartCanvas.getCandles();
+        if (candles == null || types.isEmpty()) return;
+        // The live feed keeps writing to the shown series, so the loader reads its own series: a
+        // copy of heap rows, or a view of mapped, compact or off-heap ones. Off-heap rows get their
+        // own hold, since a live write may move the shown series to the heap and release them.
+        CandleSeries shared = OffHeapCandles.share(candles);
+        CandleSeries snapshot = shared != null ? shared : candles.slice(0, candles.size());
+        String pair = currentPair;
+        Timeframe tf = currentTimeframe;
+        int period = currentPeriod;
+        long started = System.nanoTime();
+        DataLoader.submit(
+                () -> IndicatorComputer.compute(pair, tf, snapshot, types, period),
+                computed -> {
+                    Map<String, IndicatorSeries> series = indicatorEngine.adopt(candles, snapshot, period, computed);
+                    if (shared != null) OffHeapCandles.of(shared).release();
+                    if (series.isEmpty()) return;
+                    addIndicators(series);
+                    System.out.println("[ChartController] Computed " + series.size() + " indicator series for period "
+                            + period + " in " + (System.nanoTime() - started) / 1000 + " us");
+                },
+                error -> {
+                    if (shared != null) OffHeapCandles.of(shared).release();
+                    error.printStackTrace();
+                });
+    }
+
+    private Set<IndicatorType> enabledComputedTypes() {
+        Set<IndicatorType> types = EnumSet.noneOf(IndicatorType.class);
+        for (IndicatorType type : IndicatorType.values()) {
+            for (String output : type.getOutputs()) {
+                if (chartCanvas.isIndicatorEnabled(output)) types.add(type);
+            }
+        }
+        return types;
+    }
+
+    private void addIndicators(Map<String, IndicatorSeries> series) {
+        chartCanvas.addIndicators(series);
+        for (View view : views) view.canvas.addIndicators(series);
+    }
+
     public void addIndicator(Indicator indicator) {
-        chartCanvas.addIndicator(indicator);
+        chartCanvas.addIndicator(indicator.getSeries());
+        for (View view : views) view.canvas.addIndicator(indicator.getSeries());
     }
 
     public void removeIndicator(String indicatorName) {
         chartCanvas.removeIndicator(indicatorName);
+        for (View view : views) view.canvas.removeIndicator(indicatorName);
     }
 
     public void setTimeframe(Timeframe tf) {
-        if (currentPair != null) {
-            loadData(currentPair, tf, startDate, endDate);
-        }
+        this.currentTimeframe = tf;
+        scheduleReload();
     }
 
     public void setPair(String pair) {
-        if (currentTimeframe != null) {
-            loadData(pair, currentTimeframe, startDate, endDate);
-        }
+        this.currentPair = pair;
+        scheduleReload();
     }
 
+    // Recomputes the in-process indicators with the new period off the FX thread; the database is not queried again
     public void setPeriod(int period) {
+        if (period == currentPeriod) return;
         this.currentPeriod = period;
-        if (currentPair != null && currentTimeframe != null) {
-            loadData(currentPair, currentTimeframe, startDate, endDate);
-        }
+        indicatorEngine.setPeriod(period);
+        computeIndicators(indicatorEngine.activeTypes());
     }
 
     public int getCurrentPeriod() {
@@ -82,11 +459,9 @@ public class ChartController {
     public void setDateRange(long start, long end) {
         this.startDate = start;
         this.endDate = end;
-        if (currentPair != null && currentTimeframe != null) {
-            loadData(currentPair, currentTimeframe, start, end);
-        }
+        scheduleReload();
     }
 
     public long getStartDate() { return startDate; }
     public long getEndDate() { return endDate; }
-} 
\ No newline at end of file
+}
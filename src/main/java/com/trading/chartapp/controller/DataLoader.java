@@ -0,0 +1,54 @@
+package com.trading.chartapp.controller;
+
+import com.trading.chartapp.db.SQLiteConnectionPool;
+import javafx.application.Platform;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Runs database work on virtual threads, one per task, and hands the results back to the FX
+ * thread. Tasks are cheap to start and to leave blocked; how many touch a database file at once
+ * is limited by {@link SQLiteConnectionPool}, not by this executor.
+ */
+public final class DataLoader {
+    private static final ExecutorService EXECUTOR =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("chart-loader-", 0).factory());
+    // Speculative loads yield their database to user-driven ones while those are waiting
+    private static final ExecutorService PREFETCH_EXECUTOR =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("chart-prefetch-", 0).factory());
+
+    private DataLoader() {
+    }
+
+    // Callbacks run on the FX thread and are skipped if the task was cancelled while running
+    public static <T> Future<?> submit(Callable<T> task, Consumer<T> onSuccess, Consumer<Exception> onError) {
+        return EXECUTOR.submit(() -> {
+            try {
+                T result = task.call();
+                if (Thread.currentThread().isInterrupted()) return;
+                Platform.runLater(() -> onSuccess.accept(result));
+            } catch (Exception e) {
+                if (Thread.currentThread().isInterrupted()) return;
+                Platform.runLater(() -> onError.accept(e));
+            }
+        });
+    }
+
+    // Plain work on a loader thread; the task posts its own results
+    static void execute(Runnable task) {
+        EXECUTOR.execute(task);
+    }
+
+    public static <T> Future<T> prefetch(Callable<T> task) {
+        return PREFETCH_EXECUTOR.submit(() -> SQLiteConnectionPool.inBackground(task));
+    }
+
+    public static void shutdown() {
+        EXECUTOR.shutdownNow();
+        PREFETCH_EXECUTOR.shutdownNow();
+    }
+}
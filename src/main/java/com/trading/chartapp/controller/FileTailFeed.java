@@ -0,0 +1,121 @@
+package com.trading.chartapp.controller;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Stand-in live source that tails a text file of {@link MarketEvent#parse CSV events}.
+ * Only lines appended after the feed starts are streamed; a truncated file is read again
+ * from the beginning. One daemon thread serves every subscriber.
+ */
+public class FileTailFeed implements LiveFeed {
+    private static final long POLL_MS = Long.getLong("chartapp.feed.pollMs", 200);
+
+    private final Path file;
+    private final List<Consumer<MarketEvent>> listeners = new CopyOnWriteArrayList<>();
+    private Thread thread;
+    private volatile boolean running;
+
+    public FileTailFeed(Path file) {
+        this.file = file;
+    }
+
+    @Override
+    public synchronized Runnable subscribe(Consumer<MarketEvent> listener) {
+        listeners.add(listener);
+        if (thread == null) {
+            running = true;
+            thread = new Thread(this::tail, "chart-feed-" + file.getFileName());
+            thread.setDaemon(true);
+            thread.start();
+        }
+        return () -> listeners.remove(listener);
+    }
+
+    @Override
+    public synchronized void close() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+            thread = null;
+        }
+        listeners.clear();
+    }
+
+    private void tail() {
+        System.out.println("[FileTailFeed] Tailing " + file);
+        long position = -1;
+        byte[] buffer = new byte[8192];
+        StringBuilder line = new StringBuilder();
+        while (running) {
+            try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "r")) {
+                if (position < 0) position = raf.length();
+                while (running) {
+                    long length = raf.length();
+                    if (length < position) {
+                        position = 0;
+                        line.setLength(0);
+                    }
+                    if (length == position) {
+                        Thread.sleep(POLL_MS);
+                        continue;
+                    }
+                    raf.seek(position);
+                    int read = raf.read(buffer, 0, (int) Math.min(buffer.length, length - position));
+                    if (read <= 0) continue;
+                    position += read;
+                    for (int i = 0; i < read; i++) {
+                        char c = (char) buffer[i];
+                        if (c == '\n') {
+                            publish(line.toString());
+                            line.setLength(0);
+                        } else if (c != '\r') {
+                            line.append(c);
+                        }
+                    }
+                }
+            } catch (FileNotFoundException e) {
+                // Stream the whole file once it appears
+                position = 0;
+                if (!pause()) return;
+            } catch (IOException e) {
+                e.printStackTrace();
+                if (!pause()) return;
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private void publish(String line) {
+        if (line.isBlank()) return;
+        MarketEvent event;
+        try {
+            event = MarketEvent.parse(line);
+        } catch (IllegalArgumentException e) {
+            System.out.println("[FileTailFeed] Skipping malformed line: " + line);
+            return;
+        }
+        for (Consumer<MarketEvent> listener : listeners) {
+            try {
+                listener.accept(event);
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private static boolean pause() {
+        try {
+            Thread.sleep(POLL_MS);
+            return true;
+        } catch (InterruptedException e) {
+            return false;
+        }
+    }
+}
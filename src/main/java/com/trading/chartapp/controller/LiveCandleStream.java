@@ -0,0 +1,80 @@
+package com.trading.chartapp.controller;
+
+import com.trading.chartapp.model.CandleSeries;
+import com.trading.chartapp.model.Timeframe;
+import javafx.application.Platform;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Moves feed events onto the FX thread in batches. Events queue up on the feed thread and
+ * at most one runLater is outstanding, so a burst of ticks costs one repaint per pulse.
+ */
+class LiveCandleStream {
+    private final ConcurrentLinkedQueue<MarketEvent> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    private final Consumer<List<MarketEvent>> onBatch;
+    private final Runnable unsubscribe;
+    private volatile boolean closed;
+
+    LiveCandleStream(LiveFeed feed, Consumer<List<MarketEvent>> onBatch) {
+        this.onBatch = onBatch;
+        this.unsubscribe = feed.subscribe(this::enqueue);
+    }
+
+    private void enqueue(MarketEvent event) {
+        if (closed) return;
+        queue.add(event);
+        if (drainScheduled.compareAndSet(false, true)) {
+            Platform.runLater(this::drain);
+        }
+    }
+
+    private void drain() {
+        drainScheduled.set(false);
+        List<MarketEvent> batch = new ArrayList<>();
+        for (MarketEvent event; (event = queue.poll()) != null; ) {
+            batch.add(event);
+        }
+        if (!closed && !batch.isEmpty()) onBatch.accept(batch);
+    }
+
+    void close() {
+        closed = true;
+        unsubscribe.run();
+        queue.clear();
+    }
+
+    /**
+     * Folds one event into the series: an event for the newest bar updates it in place,
+     * one for a later bar appends it, and anything older is ignored. Ticks are bucketed
+     * into bars of {@code tf}; klines of other timeframes are ignored.
+     *
+     * @return index of the changed row, or -1 if nothing changed
+     */
+    static int apply(CandleSeries candles, MarketEvent event, Timeframe tf) {
+        if (!event.isTick() && event.getTimeframe() != tf) return -1;
+        long openTime = event.isTick() ? tf.barOpenTime(event.getTimestamp()) : event.getTimestamp();
+        int last = candles.size() - 1;
+        long lastOpenTime = last >= 0 ? candles.getTimestamp(last) : Long.MIN_VALUE;
+        if (openTime < lastOpenTime) return -1;
+        if (openTime == lastOpenTime) {
+            if (event.isTick()) {
+                candles.updateLast(candles.getOpen(last),
+                        Math.max(candles.getHigh(last), event.getHigh()),
+                        Math.min(candles.getLow(last), event.getLow()),
+                        event.getClose(),
+                        candles.getVolume(last) + event.getVolume());
+            } else {
+                candles.updateLast(event.getOpen(), event.getHigh(), event.getLow(), event.getClose(), event.getVolume());
+            }
+            return last;
+        }
+        candles.add(openTime, event.getOpen(), event.getHigh(), event.getLow(), event.getClose(), event.getVolume());
+        return candles.size() - 1;
+    }
+}
@@ -0,0 +1,11 @@
+package com.trading.chartapp.controller;
+
+import java.util.function.Consumer;
+
+// Source of live market events shared by any number of charts
+public interface LiveFeed {
+    // Listeners are called on the feed's own thread; the returned handle unsubscribes
+    Runnable subscribe(Consumer<MarketEvent> listener);
+
+    void close();
+}
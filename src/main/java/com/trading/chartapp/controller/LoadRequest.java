@@ -0,0 +1,80 @@
+package com.trading.chartapp.controller;
+
+import com.trading.chartapp.model.Timeframe;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Immutable description of one chart load: which database, symbol, timeframe and inclusive time range.
+ */
+public final class LoadRequest {
+    private final String dbPath;
+    private final String pair;
+    private final Timeframe timeframe;
+    private final long startDate;
+    private final long endDate;
+    // Indicators the chart has switched off; they are not fetched
+    private final Set<String> disabledIndicators;
+
+    public LoadRequest(String dbPath, String pair, Timeframe timeframe, long startDate, long endDate) {
+        this(dbPath, pair, timeframe, startDate, endDate, Collections.emptySet());
+    }
+
+    public LoadRequest(String dbPath, String pair, Timeframe timeframe, long startDate, long endDate,
+                       Set<String> disabledIndicators) {
+        this.dbPath = dbPath;
+        this.pair = pair;
+        this.timeframe = timeframe;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.disabledIndicators = Collections.unmodifiableSet(new HashSet<>(disabledIndicators));
+    }
+
+    public String getDbPath() { return dbPath; }
+    public String getPair() { return pair; }
+    public Timeframe getTimeframe() { return timeframe; }
+    public long getStartDate() { return startDate; }
+    public long getEndDate() { return endDate; }
+    public Set<String> getDisabledIndicators() { return disabledIndicators; }
+
+    // The window the prev/next buttons would show: the day range shifted by its own length plus one day
+    public LoadRequest page(int pages) {
+        ZoneId zone = ZoneId.systemDefault();
+        LocalDate start = Instant.ofEpochMilli(startDate).atZone(zone).toLocalDate();
+        LocalDate end = Instant.ofEpochMilli(endDate).atZone(zone).toLocalDate();
+        long shift = (ChronoUnit.DAYS.between(start, end) + 1) * pages;
+        return new LoadRequest(dbPath, pair, timeframe,
+                start.plusDays(shift).atStartOfDay(zone).toInstant().toEpochMilli(),
+                end.plusDays(shift).atStartOfDay(zone).toInstant().toEpochMilli(),
+                disabledIndicators);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof LoadRequest)) return false;
+        LoadRequest other = (LoadRequest) o;
+        return startDate == other.startDate && endDate == other.endDate
+                && timeframe == other.timeframe
+                && Objects.equals(dbPath, other.dbPath)
+                && Objects.equals(pair, other.pair)
+                && disabledIndicators.equals(other.disabledIndicators);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(dbPath, pair, timeframe, startDate, endDate, disabledIndicators);
+    }
+
+    @Override
+    public String toString() {
+        return pair + " " + timeframe + " [" + startDate + ", " + endDate + "] from " + dbPath;
+    }
+}
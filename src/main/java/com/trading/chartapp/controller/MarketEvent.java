@@ -0,0 +1,68 @@
+package com.trading.chartapp.controller;
+
+import com.trading.chartapp.model.Timeframe;
+
+/**
+ * A live market update: either a single trade (tick) or a kline snapshot for one timeframe.
+ * A tick carries its price in all four OHLC fields and its quantity as volume.
+ */
+public final class MarketEvent {
+    private final String symbol;
+    // Null for ticks
+    private final Timeframe timeframe;
+    private final long timestamp;
+    private final double open;
+    private final double high;
+    private final double low;
+    private final double close;
+    private final double volume;
+
+    private MarketEvent(String symbol, Timeframe timeframe, long timestamp,
+                        double open, double high, double low, double close, double volume) {
+        this.symbol = symbol;
+        this.timeframe = timeframe;
+        this.timestamp = timestamp;
+        this.open = open;
+        this.high = high;
+        this.low = low;
+        this.close = close;
+        this.volume = volume;
+    }
+
+    public static MarketEvent tick(String symbol, long timestamp, double price, double quantity) {
+        return new MarketEvent(symbol, null, timestamp, price, price, price, price, quantity);
+    }
+
+    public static MarketEvent kline(String symbol, Timeframe timeframe, long openTime,
+                                    double open, double high, double low, double close, double volume) {
+        return new MarketEvent(symbol, timeframe, openTime, open, high, low, close, volume);
+    }
+
+    /**
+     * Parses one CSV line:
+     * {@code tick,SYMBOL,timestamp,price,quantity} or
+     * {@code kline,SYMBOL,interval,openTime,open,high,low,close,volume}.
+     */
+    public static MarketEvent parse(String line) {
+        String[] f = line.trim().split(",");
+        if (f.length == 5 && f[0].equals("tick")) {
+            return tick(f[1], Long.parseLong(f[2]), Double.parseDouble(f[3]), Double.parseDouble(f[4]));
+        }
+        if (f.length == 9 && f[0].equals("kline")) {
+            return kline(f[1], Timeframe.fromLabel(f[2]), Long.parseLong(f[3]),
+                    Double.parseDouble(f[4]), Double.parseDouble(f[5]), Double.parseDouble(f[6]),
+                    Double.parseDouble(f[7]), Double.parseDouble(f[8]));
+        }
+        throw new IllegalArgumentException("Unrecognized event: " + line);
+    }
+
+    public boolean isTick() { return timeframe == null; }
+    public String getSymbol() { return symbol; }
+    public Timeframe getTimeframe() { return timeframe; }
+    public long getTimestamp() { return timestamp; }
+    public double getOpen() { return open; }
+    public double getHigh() { return high; }
+    public double getLow() { return low; }
+    public double getClose() { return close; }
+    public double getVolume() { return volume; }
+}
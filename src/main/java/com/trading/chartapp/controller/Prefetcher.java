@@ -0,0 +1,69 @@
+package com.trading.chartapp.controller;
+
+import com.trading.chartapp.model.ChartData;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+/**
+ * Loads the date windows next to the displayed one in the background, so that paging with the
+ * prev/next buttons can render from memory. The number of windows kept on each side is set with
+ * {@code chartapp.prefetch.depth} (default 1, 0 disables prefetching).
+ * Used from the FX thread only.
+ */
+public class Prefetcher {
+    private static final int DEFAULT_DEPTH = Integer.getInteger("chartapp.prefetch.depth", 1);
+
+    private final Map<LoadRequest, Future<ChartData>> windows = new HashMap<>();
+    private int depth = DEFAULT_DEPTH;
+
+    public void setDepth(int depth) {
+        this.depth = Math.max(0, depth);
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    // Hands over a prefetched (possibly still running) load for exactly this request, if there is one
+    public Future<ChartData> take(LoadRequest request) {
+        return windows.remove(request);
+    }
+
+    // Starts loads for the neighbours of {@code current} and cancels the ones no longer adjacent
+    public void prefetchAround(LoadRequest current, Function<LoadRequest, Callable<ChartData>> loader) {
+        Set<LoadRequest> wanted = new HashSet<>();
+        long now = System.currentTimeMillis();
+        for (int d = 1; d <= depth; d++) {
+            wanted.add(current.page(-d));
+            LoadRequest next = current.page(d);
+            if (next.getStartDate() <= now) wanted.add(next);
+        }
+        Iterator<Map.Entry<LoadRequest, Future<ChartData>>> it = windows.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<LoadRequest, Future<ChartData>> entry = it.next();
+            if (!wanted.contains(entry.getKey())) {
+                entry.getValue().cancel(true);
+                it.remove();
+            }
+        }
+        for (LoadRequest request : wanted) {
+            if (!windows.containsKey(request)) {
+                windows.put(request, DataLoader.prefetch(loader.apply(request)));
+            }
+        }
+    }
+
+    public void cancelAll() {
+        for (Future<ChartData> future : windows.values()) {
+            future.cancel(true);
+        }
+        windows.clear();
+    }
+}
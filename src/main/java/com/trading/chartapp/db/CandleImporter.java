@@ -0,0 +1,82 @@
+package com.trading.chartapp.db;
+
+import com.trading.chartapp.model.Timeframe;
+import org.sqlite.SQLiteConfig;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Converts per-symbol SQLite exports into {@link MappedCandleStore} files.
+ *
+ * Usage: {@code CandleImporter [--out <dir>] <file.db>...}. Without {@code --out} each database
+ * is written to the same directory the app looks in ({@link MarketDataRepository#mappedStoreDir}).
+ * Re-running appends only rows newer than those already imported.
+ */
+public final class CandleImporter {
+    private static final String SERIES_SQL = "SELECT DISTINCT symbol, interval FROM candles";
+    private static final String ROWS_SQL = "SELECT openTime, open, high, low, close, volume FROM candles WHERE symbol = ? AND interval = ? ORDER BY openTime ASC";
+
+    private CandleImporter() {
+    }
+
+    public static void main(String[] args) {
+        Path out = null;
+        List<String> dbPaths = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if ("--out".equals(args[i]) && i + 1 < args.length) out = Paths.get(args[++i]);
+            else dbPaths.add(args[i]);
+        }
+        if (dbPaths.isEmpty()) {
+            System.out.println("Usage: CandleImporter [--out <dir>] <file.db>...");
+            return;
+        }
+        for (String dbPath : dbPaths) {
+            MappedCandleStore store = new MappedCandleStore(out != null ? out : MarketDataRepository.mappedStoreDir(dbPath));
+            try {
+                importDatabase(dbPath, store);
+            } catch (SQLException | IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    public static void importDatabase(String dbPath, MappedCandleStore store) throws SQLException, IOException {
+        SQLiteConfig config = new SQLiteConfig();
+        config.setReadOnly(true);
+        try (Connection connection = DriverManager.getConnection("jdbc:sqlite:" + dbPath, config.toProperties())) {
+            List<String[]> series = new ArrayList<>();
+            try (Statement stmt = connection.createStatement(); ResultSet rs = stmt.executeQuery(SERIES_SQL)) {
+                while (rs.next()) series.add(new String[]{rs.getString(1), rs.getString(2)});
+            }
+            try (PreparedStatement stmt = connection.prepareStatement(ROWS_SQL)) {
+                for (String[] s : series) {
+                    Timeframe tf;
+                    try {
+                        tf = Timeframe.fromLabel(s[1]);
+                    } catch (IllegalArgumentException e) {
+                        System.out.println("[CandleImporter] Skipping " + s[0] + " " + s[1] + ": unknown interval");
+                        continue;
+                    }
+                    long started = System.currentTimeMillis();
+                    stmt.setString(1, s[0]);
+                    stmt.setString(2, s[1]);
+                    try (ResultSet rs = stmt.executeQuery();
+                         MappedCandleStore.Appender appender = store.openAppender(s[0], tf)) {
+                        while (rs.next()) {
+                            appender.append(rs.getLong(1), rs.getDouble(2), rs.getDouble(3),
+                                    rs.getDouble(4), rs.getDouble(5), rs.getDouble(6));
+                        }
+                        System.out.println("[CandleImporter] " + s[0] + " " + tf + ": " + appender.getAppended()
+                                + " rows appended to " + store.file(s[0], tf)
+                                + " in " + (System.currentTimeMillis() - started) + " ms");
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.trading.chartapp.db;
+
+import com.trading.chartapp.model.CandleSeries;
+import com.trading.chartapp.model.Timeframe;
+
+import java.io.IOException;
+import java.sql.SQLException;
+
+// Source of stored candles for one data set; implementations must be safe to call from loader threads
+public interface CandleStore {
+    // Candles with open time in [start, end], ascending
+    CandleSeries loadCandles(String symbol, Timeframe tf, long start, long end) throws IOException, SQLException;
+}
@@ -0,0 +1,69 @@
+package com.trading.chartapp.db;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Admits one task at a time to a database file, the way its single pooled connection is used.
+ * Waiting parks on a lock condition rather than a monitor, so blocked virtual threads release
+ * their carrier. Background work (prefetch) is only admitted while no foreground task waits.
+ * Keeps wait and run times of the tasks it admitted.
+ */
+final class DbGate {
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private boolean busy = false;
+    private int foregroundWaiting = 0;
+
+    private final AtomicLong tasks = new AtomicLong();
+    private final AtomicLong waitNanos = new AtomicLong();
+    private final AtomicLong runNanos = new AtomicLong();
+    private final LongAccumulator maxWaitNanos = new LongAccumulator(Math::max, 0);
+    private final LongAccumulator maxRunNanos = new LongAccumulator(Math::max, 0);
+
+    // Fails at once when the caller is already interrupted, so a cancelled load does not queue again
+    void acquire(boolean background) throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            if (!background) foregroundWaiting++;
+            try {
+                while (busy || (background && foregroundWaiting > 0)) changed.await();
+            } finally {
+                if (!background && --foregroundWaiting == 0) changed.signalAll();
+            }
+            busy = true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void release() {
+        lock.lock();
+        try {
+            busy = false;
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void record(long waited, long ran) {
+        tasks.incrementAndGet();
+        waitNanos.addAndGet(waited);
+        runNanos.addAndGet(ran);
+        maxWaitNanos.accumulate(waited);
+        maxRunNanos.accumulate(ran);
+    }
+
+    SQLiteConnectionPoolMXBean.DbStats stats() {
+        long n = tasks.get();
+        return new SQLiteConnectionPoolMXBean.DbStats(n,
+                n == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(waitNanos.get() / n),
+                TimeUnit.NANOSECONDS.toMicros(maxWaitNanos.get()),
+                n == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(runNanos.get() / n),
+                TimeUnit.NANOSECONDS.toMicros(maxRunNanos.get()));
+    }
+}
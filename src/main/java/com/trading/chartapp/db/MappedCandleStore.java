@@ -0,0 +1,213 @@
+package com.trading.chartapp.db;
+
+import com.trading.chartapp.model.CandleColumns;
+import com.trading.chartapp.model.CandleSeries;
+import com.trading.chartapp.model.Timeframe;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Append-only binary candle files, one per symbol and timeframe, read through
+ * {@link FileChannel#map}. Loads binary-search the mapped timestamps and return series that
+ * read the mapped rows directly, without copying.
+ *
+ * Layout: {@code <root>/<SYMBOL>/<interval>.candles}, a 16-byte header (magic, version,
+ * row size, reserved) followed by 48-byte little-endian rows of open time (long) and
+ * open, high, low, close, volume (double), in ascending open time.
+ */
+public class MappedCandleStore implements CandleStore {
+    static final int MAGIC = 0x434E444C; // "CNDL"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 16;
+    static final int ROW_BYTES = 48;
+    private static final int APPEND_BATCH_ROWS = 4096;
+
+    private final Path root;
+    private final Map<Path, MappedFile> files = new ConcurrentHashMap<>();
+
+    // One mapping of a file; replaced when the file has grown
+    private static final class MappedFile {
+        final ByteBuffer buffer;
+        final int rows;
+        final long length;
+
+        MappedFile(ByteBuffer buffer, int rows, long length) {
+            this.buffer = buffer;
+            this.rows = rows;
+            this.length = length;
+        }
+
+        long timestamp(int row) {
+            return buffer.getLong(HEADER_BYTES + row * ROW_BYTES);
+        }
+    }
+
+    public MappedCandleStore(Path root) {
+        this.root = root;
+    }
+
+    public Path getRoot() {
+        return root;
+    }
+
+    public Path file(String symbol, Timeframe tf) {
+        return root.resolve(symbol).resolve(tf.getLabel() + ".candles");
+    }
+
+    @Override
+    public CandleSeries loadCandles(String symbol, Timeframe tf, long start, long end) throws IOException {
+        MappedFile mapped = map(file(symbol, tf));
+        if (mapped == null) return new CandleSeries(1);
+        int from = lowerBound(mapped, start);
+        int to = end == Long.MAX_VALUE ? mapped.rows : lowerBound(mapped, end + 1);
+        return new CandleSeries(new Rows(mapped.buffer, from, Math.max(from, to)));
+    }
+
+    private static int lowerBound(MappedFile mapped, long ts) {
+        int lo = 0, hi = mapped.rows;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (mapped.timestamp(mid) < ts) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    private MappedFile map(Path file) throws IOException {
+        if (!Files.exists(file)) return null;
+        long length = Files.size(file);
+        MappedFile mapped = files.get(file);
+        if (mapped != null && mapped.length == length) return mapped;
+        if (length > Integer.MAX_VALUE) throw new IOException("Candle file too large to map: " + file);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (length < HEADER_BYTES) throw new IOException("Truncated candle file: " + file);
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, length).order(ByteOrder.LITTLE_ENDIAN);
+            checkHeader(buffer, file);
+            mapped = new MappedFile(buffer, (int) ((length - HEADER_BYTES) / ROW_BYTES), length);
+        }
+        files.put(file, mapped);
+        return mapped;
+    }
+
+    private static void checkHeader(ByteBuffer header, Path file) throws IOException {
+        if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION || header.getInt(8) != ROW_BYTES) {
+            throw new IOException("Not a candle file (or unsupported version): " + file);
+        }
+    }
+
+    /**
+     * Opens the file for symbol/tf for appending, creating it if needed. Rows that are not
+     * newer than the last stored row are skipped, which keeps the file sorted and makes
+     * re-imports incremental.
+     */
+    public Appender openAppender(String symbol, Timeframe tf) throws IOException {
+        Path file = file(symbol, tf);
+        Files.createDirectories(file.getParent());
+        files.remove(file);
+        return new Appender(file);
+    }
+
+    public static final class Appender implements AutoCloseable {
+        private final FileChannel channel;
+        private final ByteBuffer batch = ByteBuffer.allocate(ROW_BYTES * APPEND_BATCH_ROWS).order(ByteOrder.LITTLE_ENDIAN);
+        private long position;
+        private long lastTimestamp = Long.MIN_VALUE;
+        private long appended;
+
+        private Appender(Path file) throws IOException {
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            long size = channel.size();
+            if (size < HEADER_BYTES) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+                header.putInt(MAGIC).putInt(VERSION).putInt(ROW_BYTES).putInt(0).flip();
+                channel.write(header, 0);
+                position = HEADER_BYTES;
+            } else {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+                channel.read(header, 0);
+                checkHeader(header, file);
+                // A partially written last row is dropped
+                position = HEADER_BYTES + (size - HEADER_BYTES) / ROW_BYTES * ROW_BYTES;
+                if (position > HEADER_BYTES) {
+                    ByteBuffer last = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+                    channel.read(last, position - ROW_BYTES);
+                    lastTimestamp = last.getLong(0);
+                }
+            }
+        }
+
+        public void append(long timestamp, double open, double high, double low, double close, double volume) throws IOException {
+            if (timestamp <= lastTimestamp) return;
+            batch.putLong(timestamp).putDouble(open).putDouble(high).putDouble(low).putDouble(close).putDouble(volume);
+            lastTimestamp = timestamp;
+            appended++;
+            if (!batch.hasRemaining()) flush();
+        }
+
+        public long getAppended() {
+            return appended;
+        }
+
+        private void flush() throws IOException {
+            batch.flip();
+            while (batch.hasRemaining()) {
+                position += channel.write(batch, position);
+            }
+            batch.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                flush();
+                channel.truncate(position);
+                channel.force(false);
+            } finally {
+                channel.close();
+            }
+        }
+    }
+
+    // Rows [from, to) of a mapping; absolute reads only, so views are safe to share between threads
+    private static final class Rows implements CandleColumns {
+        private final ByteBuffer buffer;
+        private final int from;
+        private final int size;
+
+        Rows(ByteBuffer buffer, int from, int to) {
+            this.buffer = buffer;
+            this.from = from;
+            this.size = to - from;
+        }
+
+        private int offset(int i) {
+            return HEADER_BYTES + (from + i) * ROW_BYTES;
+        }
+
+        @Override public int size() { return size; }
+        @Override public long timestamp(int i) { return buffer.getLong(offset(i)); }
+        @Override public double open(int i) { return buffer.getDouble(offset(i) + 8); }
+        @Override public double high(int i) { return buffer.getDouble(offset(i) + 16); }
+        @Override public double low(int i) { return buffer.getDouble(offset(i) + 24); }
+        @Override public double close(int i) { return buffer.getDouble(offset(i) + 32); }
+        @Override public double volume(int i) { return buffer.getDouble(offset(i) + 40); }
+
+        @Override
+        public CandleColumns slice(int sliceFrom, int sliceTo) {
+            return new Rows(buffer, from + sliceFrom, from + sliceTo);
+        }
+
+        @Override
+        public long estimatedBytes() {
+            return 32;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.trading.chartapp.db;
+
+import com.trading.chartapp.cache.RangeCache;
+import com.trading.chartapp.cache.SeriesKey;
+import com.trading.chartapp.model.CandleSeries;
+import com.trading.chartapp.model.CompactCandles;
+import com.trading.chartapp.model.IndicatorSeries;
+import com.trading.chartapp.model.Resampler;
+import com.trading.chartapp.model.Timeframe;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Single entry point for market data reads. Candle ranges go through a process-wide
+ * {@link RangeCache} shared by all chart panels; misses are served from the connection pool.
+ * The cache budget is set with {@code chartapp.cache.maxBytes}.
+ *
+ * Stored intervals are read from their own rows. A coarser timeframe is resampled from the
+ * next finer one instead when the range is already cached at some finer level, so switching
+ * timeframe over loaded data does not query again, and always when the database has no rows
+ * for it (30m, 2h). Each level is cached under its own key. With
+ * {@code -Dchartapp.resample=true} every timeframe is built from the 1m rows, which makes
+ * the cached levels a pyramid over them at the cost of reading 1m rows for long ranges.
+ *
+ * Candles come from a {@link CandleStore} per data set: the SQLite file itself by default, or
+ * with {@code -Dchartapp.store=mapped} the binary files written by {@code CandleImporter}, found
+ * in {@code chartapp.store.dir} or a {@code candle-store} directory next to the database.
+ * Indicators are always read from SQLite.
+ *
+ * Cached segments are stored as {@link CompactCandles}, a quarter to a third of the size of
+ * plain columns, so the same budget holds three to four times the history. They decode to exactly the loaded
+ * values; {@code -Dchartapp.cache.compact=false} keeps the plain columns.
+ */
+public final class MarketDataRepository {
+    private static final long DEFAULT_CACHE_BYTES = 256L * 1024 * 1024;
+    private static final String CANDLES = "candles";
+    private static final boolean RESAMPLE = Boolean.parseBoolean(System.getProperty("chartapp.resample", "false"));
+    private static final boolean COMPACT = Boolean.parseBoolean(System.getProperty("chartapp.cache.compact", "true"));
+    private static final boolean MAPPED_STORE = "mapped".equalsIgnoreCase(System.getProperty("chartapp.store", "sqlite"));
+    // Created after the flags above, which the constructor reads
+    private static final MarketDataRepository INSTANCE = new MarketDataRepository();
+
+    private final SQLiteConnectionPool pool = SQLiteConnectionPool.getInstance();
+    private final RangeCache<CandleSeries> candleCache =
+            new RangeCache<>(CANDLES, Long.getLong("chartapp.cache.maxBytes", DEFAULT_CACHE_BYTES),
+                    COMPACT ? (key, s) -> CompactCandles.encode(s, key.getTimeframe().getMillis()) : null);
+    private final Map<String, CandleStore> stores = new ConcurrentHashMap<>();
+
+    private MarketDataRepository() {
+    }
+
+    public static MarketDataRepository getInstance() {
+        return INSTANCE;
+    }
+
+    public CandleSeries loadCandles(String dbPath, String symbol, Timeframe tf, long start, long end) throws IOException, SQLException {
+        if (tf.getResampleSource() != null && (RESAMPLE || !tf.isStored() || sourceCached(symbol, tf, start, end))) {
+            return loadResampled(dbPath, symbol, tf, start, end);
+        }
+        // Rows after "now" may still be written, so that part of the range is never cached
+        long cacheableEnd = Math.min(end, System.currentTimeMillis());
+        if (cacheableEnd < start) {
+            return queryCandles(dbPath, symbol, tf, start, end);
+        }
+        CandleSeries candles = candleCache.get(new SeriesKey(symbol, tf, CANDLES), start, cacheableEnd,
+                (s, e) -> queryCandles(dbPath, symbol, tf, s, e));
+        if (cacheableEnd < end) {
+            candles = candles.merge(queryCandles(dbPath, symbol, tf, cacheableEnd + 1, end));
+        }
+        return candles;
+    }
+
+    private CandleSeries loadResampled(String dbPath, String symbol, Timeframe tf, long start, long end) throws IOException, SQLException {
+        // Only complete bars are cached; the one still forming is rebuilt on every load
+        long cacheableEnd = Math.min(end, tf.barOpenTime(System.currentTimeMillis()) - 1);
+        if (cacheableEnd < start) {
+            return resample(dbPath, symbol, tf, start, end);
+        }
+        CandleSeries candles = candleCache.get(new SeriesKey(symbol, tf, CANDLES), start, cacheableEnd,
+                (s, e) -> resample(dbPath, symbol, tf, s, e));
+        if (cacheableEnd < end) {
+            candles = candles.merge(resample(dbPath, symbol, tf, cacheableEnd + 1, end));
+        }
+        return candles;
+    }
+
+    // Whether a finer level holds every row a resample of [start, end] would read; each level tiles the next
+    private boolean sourceCached(String symbol, Timeframe tf, long start, long end) {
+        long from = tf.barOpenTime(start);
+        long to = Math.min(System.currentTimeMillis(), end >= Long.MAX_VALUE - tf.getMillis()
+                ? Long.MAX_VALUE : tf.barOpenTime(end) + tf.getMillis() - 1);
+        if (to < from) return false;
+        for (Timeframe source = tf.getResampleSource(); source != null; source = source.getResampleSource()) {
+            if (candleCache.covers(new SeriesKey(symbol, source, CANDLES), from, to)) return true;
+        }
+        return false;
+    }
+
+    // Bars opening in [start, end], built from whole bars of the source timeframe
+    private CandleSeries resample(String dbPath, String symbol, Timeframe tf, long start, long end) throws IOException, SQLException {
+        long from = tf.barOpenTime(start);
+        long to = end >= Long.MAX_VALUE - tf.getMillis() ? Long.MAX_VALUE : tf.barOpenTime(end) + tf.getMillis() - 1;
+        CandleSeries bars = Resampler.resample(loadCandles(dbPath, symbol, tf.getResampleSource(), from, to), tf);
+        return bars.slice(bars.lowerBound(start), bars.upperBound(end));
+    }
+
+    // Indicator columns aligned with {@code candles}, for the requested names only
+    public Map<String, IndicatorSeries> loadIndicators(String dbPath, String symbol, Timeframe tf, long start, long end,
+                                                       Collection<String> names, CandleSeries candles) throws SQLException {
+        return pool.execute(dbPath, db -> db.loadIndicators(symbol, tf, start, end, names, candles));
+    }
+
+    public List<String> listIndicators(String dbPath, String symbol) throws SQLException {
+        return pool.execute(dbPath, db -> db.listIndicators(symbol));
+    }
+
+    public RangeCache<CandleSeries> getCandleCache() {
+        return candleCache;
+    }
+
+    private CandleSeries queryCandles(String dbPath, String symbol, Timeframe tf, long start, long end) throws IOException, SQLException {
+        return storeFor(dbPath).loadCandles(symbol, tf, start, end);
+    }
+
+    private CandleStore storeFor(String dbPath) {
+        return stores.computeIfAbsent(dbPath, path -> MAPPED_STORE
+                ? new MappedCandleStore(mappedStoreDir(path))
+                : new SQLiteCandleStore(path, pool));
+    }
+
+    public static Path mappedStoreDir(String dbPath) {
+        String dir = System.getProperty("chartapp.store.dir");
+        if (dir != null) return Paths.get(dir);
+        return Paths.get(dbPath).toAbsolutePath().resolveSibling("candle-store");
+    }
+}
@@ -0,0 +1,22 @@
+package com.trading.chartapp.db;
+
+import com.trading.chartapp.model.CandleSeries;
+import com.trading.chartapp.model.Timeframe;
+
+import java.sql.SQLException;
+
+// Candles from a per-symbol SQLite export, read through the shared connection pool
+public class SQLiteCandleStore implements CandleStore {
+    private final String dbPath;
+    private final SQLiteConnectionPool pool;
+
+    public SQLiteCandleStore(String dbPath, SQLiteConnectionPool pool) {
+        this.dbPath = dbPath;
+        this.pool = pool;
+    }
+
+    @Override
+    public CandleSeries loadCandles(String symbol, Timeframe tf, long start, long end) throws SQLException {
+        return pool.execute(dbPath, db -> db.loadCandlesticks(symbol, tf, start, end));
+    }
+}
@@ -1,69 +1,247 @@
 package com.trading.chartapp.db;
 
-import com.trading.chartapp.model.Candlestick;
-import com.trading.chartapp.model.Indicator;
+import com.trading.chartapp.model.CandleSeries;
+import com.trading.chartapp.model.IndicatorColumns;
+import com.trading.chartapp.model.IndicatorSeries;
 import com.trading.chartapp.model.Timeframe;
+import org.sqlite.SQLiteConfig;
 
 import java.sql.*;
 import java.util.*;
 
 public class SQLiteConnection {
+    private static final String CANDLES_SQL = "SELECT openTime, open, high, low, close, volume FROM candles WHERE symbol = ? AND interval = ? AND openTime BETWEEN ? AND ? ORDER BY openTime ASC";
+    private static final String CANDLES_COUNT_SQL = "SELECT COUNT(*) FROM candles WHERE symbol = ? AND interval = ? AND openTime BETWEEN ? AND ?";
+    private static final String INDICATOR_NAMES_SQL = "SELECT DISTINCT indicator FROM indicators WHERE symbol = ? ORDER BY indicator";
+    // Ranges that could hold more rows than this are counted before reading instead of presized from the timeframe
+    private static final long MAX_ESTIMATED_ROWS = 4096;
+    // Long reads check for an interrupted caller every this many rows, plus one
+    private static final int INTERRUPT_CHECK_MASK = 4095;
+    // Read-side tuning applied to every pooled connection
+    private static final long MMAP_BYTES = Long.getLong("chartapp.db.mmapBytes", 256L * 1024 * 1024);
+    private static final long PAGE_CACHE_KB = Long.getLong("chartapp.db.cacheKb", 64L * 1024);
+
     private Connection connection;
+    // Prepared once per connection and reused for every query
+    private PreparedStatement candlesStmt;
+    private PreparedStatement candlesCountStmt;
+    // Keyed by the number of indicator names in the IN list
+    private final Map<Integer, PreparedStatement> indicatorStmts = new HashMap<>();
+    private final Map<String, List<String>> indicatorNames = new HashMap<>();
+    private Boolean indicatorHasInterval;
+    private volatile long lastUsedAt = System.currentTimeMillis();
 
     public void connect(String dbPath) throws SQLException {
         connection = DriverManager.getConnection("jdbc:sqlite:" + dbPath);
     }
 
+    public void connectReadOnly(String dbPath) throws SQLException {
+        SQLiteConfig config = new SQLiteConfig();
+        config.setReadOnly(true);
+        connection = DriverManager.getConnection("jdbc:sqlite:" + dbPath, config.toProperties());
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("PRAGMA mmap_size = " + MMAP_BYTES);
+            // Negative values are in KiB rather than pages
+            stmt.execute("PRAGMA cache_size = -" + PAGE_CACHE_KB);
+            stmt.execute("PRAGMA temp_store = MEMORY");
+            stmt.execute("PRAGMA query_only = 1");
+        }
+    }
+
+    public boolean isConnected() throws SQLException {
+        return connection != null && !connection.isClosed();
+    }
+
     public void disconnect() throws SQLException {
         if (connection != null && !connection.isClosed()) {
+            closeQuietly(candlesStmt);
+            closeQuietly(candlesCountStmt);
+            for (PreparedStatement stmt : indicatorStmts.values()) closeQuietly(stmt);
+            candlesStmt = null;
+            candlesCountStmt = null;
+            indicatorStmts.clear();
+            indicatorNames.clear();
+            indicatorHasInterval = null;
             connection.close();
         }
     }
 
-    public List<Candlestick> loadCandlesticks(String pair, Timeframe tf, long startDate, long endDate) throws SQLException {
-        String sql = "SELECT openTime, open, high, low, close, volume FROM candles WHERE symbol = ? AND interval = ? AND openTime BETWEEN ? AND ? ORDER BY openTime ASC";
-        List<Candlestick> candles = new ArrayList<>();
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setString(1, pair);
-            stmt.setString(2, tf.getLabel());
-            stmt.setLong(3, startDate);
-            stmt.setLong(4, endDate);
-            ResultSet rs = stmt.executeQuery();
+    /**
+     * Aborts the statement running on this connection; it fails with SQLITE_INTERRUPT. Called
+     * from another thread, together with interrupting the thread that runs the query, which
+     * stops a read between statements or between rows.
+     */
+    public void interrupt() throws SQLException {
+        Connection c = connection;
+        if (c != null && !c.isClosed()) c.unwrap(org.sqlite.SQLiteConnection.class).getDatabase().interrupt();
+    }
+
+    private static void checkInterrupted() throws SQLException {
+        if (Thread.currentThread().isInterrupted()) throw new SQLException("Query interrupted");
+    }
+
+    public long getLastUsedAt() { return lastUsedAt; }
+    void touch() { lastUsedAt = System.currentTimeMillis(); }
+
+    public CandleSeries loadCandlesticks(String pair, Timeframe tf, long startDate, long endDate) throws SQLException {
+        if (candlesStmt == null) candlesStmt = connection.prepareStatement(CANDLES_SQL);
+        PreparedStatement stmt = candlesStmt;
+        CandleSeries candles = new CandleSeries(expectedRows(pair, tf, startDate, endDate));
+        stmt.setString(1, pair);
+        stmt.setString(2, tf.getLabel());
+        stmt.setLong(3, startDate);
+        stmt.setLong(4, endDate);
+        try (ResultSet rs = stmt.executeQuery()) {
             while (rs.next()) {
-                candles.add(new Candlestick(
-                        rs.getLong("openTime"),
-                        rs.getDouble("open"),
-                        rs.getDouble("high"),
-                        rs.getDouble("low"),
-                        rs.getDouble("close"),
-                        rs.getDouble("volume")
-                ));
+                candles.add(rs.getLong(1), rs.getDouble(2), rs.getDouble(3),
+                        rs.getDouble(4), rs.getDouble(5), rs.getDouble(6));
+                if ((candles.size() & INTERRUPT_CHECK_MASK) == 0) checkInterrupted();
             }
         }
+        candles.trimToSize();
         return candles;
     }
 
-    public Map<String, Indicator> loadIndicators(String pair, Timeframe tf, long startDate, long endDate) throws SQLException {
-        String sql = "SELECT indicator, timestamp, value FROM indicators WHERE symbol = ? AND timestamp BETWEEN ? AND ? ORDER BY indicator, timestamp ASC";
-        Map<String, List<Double>> valuesMap = new HashMap<>();
-        Map<String, List<Long>> timesMap = new HashMap<>();
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+    // Capacity for a range: one row per bar when that is at most a few thousand, otherwise an exact
+    // COUNT, which only walks the index, so sparse or empty ranges do not allocate for every bar
+    private int expectedRows(String pair, Timeframe tf, long startDate, long endDate) throws SQLException {
+        if (endDate < startDate) return 1;
+        long bars = (endDate - startDate) / tf.getMillis() + 1;
+        if (bars > 0 && bars <= MAX_ESTIMATED_ROWS) return (int) bars;
+        if (candlesCountStmt == null) candlesCountStmt = connection.prepareStatement(CANDLES_COUNT_SQL);
+        candlesCountStmt.setString(1, pair);
+        candlesCountStmt.setString(2, tf.getLabel());
+        candlesCountStmt.setLong(3, startDate);
+        candlesCountStmt.setLong(4, endDate);
+        try (ResultSet rs = candlesCountStmt.executeQuery()) {
+            return rs.next() ? (int) Math.max(1, Math.min(rs.getLong(1), Integer.MAX_VALUE - 8)) : 1;
+        }
+    }
+
+    // Names of all indicators stored for a symbol, cached for the lifetime of the connection
+    public List<String> listIndicators(String pair) throws SQLException {
+        List<String> names = indicatorNames.get(pair);
+        if (names != null) return names;
+        names = new ArrayList<>();
+        try (PreparedStatement stmt = connection.prepareStatement(INDICATOR_NAMES_SQL)) {
             stmt.setString(1, pair);
-            stmt.setLong(2, startDate);
-            stmt.setLong(3, endDate);
-            ResultSet rs = stmt.executeQuery();
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) names.add(rs.getString(1));
+            }
+        }
+        names = Collections.unmodifiableList(names);
+        indicatorNames.put(pair, names);
+        return names;
+    }
+
+    /**
+     * Loads the given indicators in one query and pivots them into columns aligned with
+     * {@code candles}. Rows are filtered by timeframe when the table has an interval column;
+     * otherwise rows that do not line up with a candle of this timeframe are dropped.
+     */
+    public Map<String, IndicatorSeries> loadIndicators(String pair, Timeframe tf, long startDate, long endDate,
+                                                       Collection<String> names, CandleSeries candles) throws SQLException {
+        IndicatorColumns columns = new IndicatorColumns(candles, names);
+        if (names.isEmpty() || candles.isEmpty()) return columns.build();
+        PreparedStatement stmt = indicatorStatement(names.size());
+        int p = 1;
+        // Names are bound twice: once to map them to column indexes, once for the IN filter
+        for (String name : names) stmt.setString(p++, name);
+        stmt.setString(p++, pair);
+        if (hasIndicatorInterval()) stmt.setString(p++, tf.getLabel());
+        stmt.setLong(p++, Math.max(startDate, candles.getTimestamp(0)));
+        stmt.setLong(p++, Math.min(endDate, candles.getTimestamp(candles.size() - 1)));
+        for (String name : names) stmt.setString(p++, name);
+        try (ResultSet rs = stmt.executeQuery()) {
+            for (int rows = 1; rs.next(); rows++) {
+                columns.set(rs.getInt(1), rs.getLong(2), rs.getDouble(3));
+                if ((rows & INTERRUPT_CHECK_MASK) == 0) checkInterrupted();
+            }
+        }
+        return columns.build();
+    }
+
+    private PreparedStatement indicatorStatement(int nameCount) throws SQLException {
+        PreparedStatement stmt = indicatorStmts.get(nameCount);
+        if (stmt != null) return stmt;
+        stmt = connection.prepareStatement(indicatorSql(nameCount));
+        indicatorStmts.put(nameCount, stmt);
+        return stmt;
+    }
+
+    private String indicatorSql(int nameCount) throws SQLException {
+        // The CASE maps each name to its position so rows are read without materializing the name
+        StringBuilder sql = new StringBuilder("SELECT CASE indicator");
+        for (int i = 0; i < nameCount; i++) sql.append(" WHEN ? THEN ").append(i);
+        sql.append(" END, timestamp, value FROM indicators WHERE symbol = ?");
+        if (hasIndicatorInterval()) sql.append(" AND interval = ?");
+        sql.append(" AND timestamp BETWEEN ? AND ? AND indicator IN (");
+        for (int i = 0; i < nameCount; i++) sql.append(i == 0 ? "?" : ", ?");
+        // Name by name, each in timestamp order, which is the index order; a timestamp order would need a sort
+        sql.append(") ORDER BY indicator ASC, timestamp ASC");
+        return sql.toString();
+    }
+
+    /**
+     * Describes the reads that would scan their table or sort in a temporary b-tree because no
+     * index on (symbol, interval, openTime) or (symbol, indicator, timestamp) covers them.
+     * Returns an empty list when both queries are served by an index.
+     */
+    public List<String> checkIndexes() throws SQLException {
+        List<String> problems = new ArrayList<>();
+        if (hasTable("candles")) {
+            checkPlan(CANDLES_SQL, "candles(symbol, interval, openTime)", problems);
+        }
+        if (hasTable("indicators")) {
+            // The statement loadIndicators runs, with several names so the plan shows any sort
+            checkPlan(indicatorSql(2), "indicators(symbol, " + (hasIndicatorInterval() ? "interval, " : "") + "indicator, timestamp)", problems);
+        }
+        return problems;
+    }
+
+    private void checkPlan(String sql, String index, List<String> problems) throws SQLException {
+        // Parameters stay unbound; the plan does not depend on their values
+        try (PreparedStatement stmt = connection.prepareStatement("EXPLAIN QUERY PLAN " + sql);
+             ResultSet rs = stmt.executeQuery()) {
             while (rs.next()) {
-                String indicatorName = rs.getString("indicator");
-                long ts = rs.getLong("timestamp");
-                double val = rs.getDouble("value");
-                valuesMap.computeIfAbsent(indicatorName, k -> new ArrayList<>()).add(val);
-                timesMap.computeIfAbsent(indicatorName, k -> new ArrayList<>()).add(ts);
+                String detail = rs.getString("detail");
+                if (detail.startsWith("SCAN") || detail.contains("TEMP B-TREE")) {
+                    problems.add("no index on " + index + " (" + detail + ")");
+                    return;
+                }
             }
         }
-        Map<String, Indicator> indicators = new HashMap<>();
-        for (String name : valuesMap.keySet()) {
-            indicators.put(name, new Indicator(name, valuesMap.get(name), timesMap.get(name)));
+    }
+
+    private boolean hasTable(String name) throws SQLException {
+        try (PreparedStatement stmt = connection.prepareStatement("SELECT 1 FROM sqlite_master WHERE type = 'table' AND name = ?")) {
+            stmt.setString(1, name);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    private boolean hasIndicatorInterval() throws SQLException {
+        if (indicatorHasInterval == null) {
+            boolean found = false;
+            try (Statement stmt = connection.createStatement();
+                 ResultSet rs = stmt.executeQuery("PRAGMA table_info(indicators)")) {
+                while (rs.next()) {
+                    if ("interval".equalsIgnoreCase(rs.getString("name"))) found = true;
+                }
+            }
+            indicatorHasInterval = found;
+        }
+        return indicatorHasInterval;
+    }
+
+    private static void closeQuietly(Statement stmt) {
+        if (stmt == null) return;
+        try {
+            stmt.close();
+        } catch (SQLException e) {
+            e.printStackTrace();
         }
-        return indicators;
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,206 @@
+package com.trading.chartapp.db;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Process-wide pool of long-lived read-only connections, one per symbol database file.
+ * Callers run on virtual threads, so access to a file is admitted by its {@link DbGate}, which
+ * parks waiters instead of blocking a carrier on the connection's monitor; the monitor is
+ * still taken to exclude the idle sweep. Connections idle for longer than
+ * {@code chartapp.db.idleTimeoutMs} are closed by a background sweep. Wait and run times per
+ * file are published over JMX as {@code com.trading.chartapp:type=SQLiteConnectionPool}.
+ */
+public final class SQLiteConnectionPool implements SQLiteConnectionPoolMXBean {
+    private static final long DEFAULT_IDLE_TIMEOUT_MS = 5 * 60 * 1000L;
+    private static final SQLiteConnectionPool INSTANCE =
+            new SQLiteConnectionPool(Long.getLong("chartapp.db.idleTimeoutMs", DEFAULT_IDLE_TIMEOUT_MS));
+
+    // Marks work that must not delay interactive loads, such as prefetching
+    private static final ThreadLocal<Boolean> BACKGROUND = ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+    private final Map<String, SQLiteConnection> connections = new ConcurrentHashMap<>();
+    private final Map<String, DbGate> gates = new ConcurrentHashMap<>();
+    // The connection each thread is running work on, so that work can be cancelled
+    private final Map<Thread, SQLiteConnection> active = new ConcurrentHashMap<>();
+    private final long idleTimeoutMs;
+    private final ScheduledExecutorService evictor;
+    private volatile boolean shutdown = false;
+    // Databases whose indexes were already checked; reconnecting after eviction does not report again
+    private final Set<String> checkedIndexes = ConcurrentHashMap.newKeySet();
+
+    @FunctionalInterface
+    public interface SqlWork<T> {
+        T run(SQLiteConnection connection) throws SQLException;
+    }
+
+    private SQLiteConnectionPool(long idleTimeoutMs) {
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "sqlite-pool-evictor");
+            t.setDaemon(true);
+            return t;
+        });
+        long sweepMs = Math.max(1000, idleTimeoutMs / 2);
+        evictor.scheduleWithFixedDelay(this::evictIdle, sweepMs, sweepMs, TimeUnit.MILLISECONDS);
+        try {
+            ManagementFactory.getPlatformMBeanServer()
+                    .registerMBean(this, new ObjectName("com.trading.chartapp:type=SQLiteConnectionPool"));
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    public static SQLiteConnectionPool getInstance() {
+        return INSTANCE;
+    }
+
+    // Runs work with every query it makes admitted only while no foreground query waits for the same file
+    public static <T> T inBackground(Callable<T> work) throws Exception {
+        boolean outer = BACKGROUND.get();
+        BACKGROUND.set(Boolean.TRUE);
+        try {
+            return work.call();
+        } finally {
+            BACKGROUND.set(outer);
+        }
+    }
+
+    public <T> T execute(String dbPath, SqlWork<T> work) throws SQLException {
+        DbGate gate = gates.computeIfAbsent(dbPath, p -> new DbGate());
+        long queued = System.nanoTime();
+        try {
+            gate.acquire(BACKGROUND.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for " + dbPath, e);
+        }
+        long admitted = System.nanoTime();
+        try {
+            return run(dbPath, work);
+        } finally {
+            gate.release();
+            gate.record(admitted - queued, System.nanoTime() - admitted);
+        }
+    }
+
+    private <T> T run(String dbPath, SqlWork<T> work) throws SQLException {
+        while (true) {
+            if (shutdown) throw new SQLException("Connection pool is shut down");
+            SQLiteConnection conn = connections.computeIfAbsent(dbPath, p -> new SQLiteConnection());
+            synchronized (conn) {
+                // The connection may have been evicted while we were waiting for the lock
+                if (connections.get(dbPath) != conn) continue;
+                if (!conn.isConnected()) {
+                    System.out.println("[SQLiteConnectionPool] Opening DB: " + dbPath);
+                    try {
+                        conn.connectReadOnly(dbPath);
+                    } catch (SQLException e) {
+                        connections.remove(dbPath, conn);
+                        throw e;
+                    }
+                    if (checkedIndexes.add(dbPath)) reportMissingIndexes(dbPath, conn);
+                }
+                active.put(Thread.currentThread(), conn);
+                try {
+                    return work.run(conn);
+                } finally {
+                    active.remove(Thread.currentThread());
+                    conn.touch();
+                }
+            }
+        }
+    }
+
+    /**
+     * Stops the work {@code worker} runs or waits for: the thread is interrupted, which fails
+     * its gate wait and row loops, and a statement it is executing is aborted.
+     */
+    public void cancel(Thread worker) {
+        worker.interrupt();
+        SQLiteConnection conn = active.get(worker);
+        if (conn == null) return;
+        try {
+            conn.interrupt();
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static void reportMissingIndexes(String dbPath, SQLiteConnection conn) {
+        try {
+            for (String problem : conn.checkIndexes()) {
+                System.out.println("[SQLiteConnectionPool] " + dbPath + ": " + problem);
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+
+    @Override
+    public int getOpenConnectionCount() {
+        return connections.size();
+    }
+
+    @Override
+    public Map<String, DbStats> getDatabases() {
+        Map<String, DbStats> result = new TreeMap<>();
+        for (Map.Entry<String, DbGate> entry : gates.entrySet()) {
+            result.put(entry.getKey(), entry.getValue().stats());
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("Database tasks:");
+        for (Map.Entry<String, DbStats> entry : getDatabases().entrySet()) {
+            sb.append("\n  ").append(entry.getKey()).append(": ").append(entry.getValue());
+        }
+        return sb.toString();
+    }
+
+    private void evictIdle() {
+        long now = System.currentTimeMillis();
+        for (Map.Entry<String, SQLiteConnection> entry : connections.entrySet()) {
+            SQLiteConnection conn = entry.getValue();
+            if (now - conn.getLastUsedAt() < idleTimeoutMs) continue;
+            synchronized (conn) {
+                if (System.currentTimeMillis() - conn.getLastUsedAt() < idleTimeoutMs) continue;
+                if (connections.remove(entry.getKey(), conn)) {
+                    System.out.println("[SQLiteConnectionPool] Closing idle DB: " + entry.getKey());
+                    close(conn);
+                }
+            }
+        }
+    }
+
+    public void shutdown() {
+        shutdown = true;
+        evictor.shutdownNow();
+        for (String dbPath : connections.keySet()) {
+            SQLiteConnection conn = connections.remove(dbPath);
+            if (conn == null) continue;
+            synchronized (conn) {
+                close(conn);
+            }
+        }
+    }
+
+    private static void close(SQLiteConnection conn) {
+        try {
+            conn.disconnect();
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+}
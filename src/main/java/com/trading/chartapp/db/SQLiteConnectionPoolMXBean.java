@@ -0,0 +1,43 @@
+package com.trading.chartapp.db;
+
+import java.beans.ConstructorProperties;
+import java.util.Map;
+
+// JMX view of {@link SQLiteConnectionPool}: open connections and per-file task timings
+public interface SQLiteConnectionPoolMXBean {
+
+    final class DbStats {
+        private final long tasks;
+        private final long avgWaitMicros;
+        private final long maxWaitMicros;
+        private final long avgRunMicros;
+        private final long maxRunMicros;
+
+        @ConstructorProperties({"tasks", "avgWaitMicros", "maxWaitMicros", "avgRunMicros", "maxRunMicros"})
+        public DbStats(long tasks, long avgWaitMicros, long maxWaitMicros, long avgRunMicros, long maxRunMicros) {
+            this.tasks = tasks;
+            this.avgWaitMicros = avgWaitMicros;
+            this.maxWaitMicros = maxWaitMicros;
+            this.avgRunMicros = avgRunMicros;
+            this.maxRunMicros = maxRunMicros;
+        }
+
+        public long getTasks() { return tasks; }
+        // Time spent waiting for the file's gate
+        public long getAvgWaitMicros() { return avgWaitMicros; }
+        public long getMaxWaitMicros() { return maxWaitMicros; }
+        // Time spent holding the connection
+        public long getAvgRunMicros() { return avgRunMicros; }
+        public long getMaxRunMicros() { return maxRunMicros; }
+
+        @Override
+        public String toString() {
+            return String.format("%d tasks, wait avg %dus max %dus, run avg %dus max %dus",
+                    tasks, avgWaitMicros, maxWaitMicros, avgRunMicros, maxRunMicros);
+        }
+    }
+
+    int getOpenConnectionCount();
+
+    Map<String, DbStats> getDatabases();
+}
@@ -0,0 +1,47 @@
+package com.trading.chartapp.indicator;
+
+// Wilder's average true range, seeded with the simple average of the first period true ranges
+public class Atr implements StreamingIndicator {
+    private final int period;
+    private double prevClose = Double.NaN;
+    private int count;
+    private double value;
+
+    public Atr(int period) {
+        this.period = Math.max(1, period);
+    }
+
+    private Atr(Atr other) {
+        this.period = other.period;
+        this.prevClose = other.prevClose;
+        this.count = other.count;
+        this.value = other.value;
+    }
+
+    @Override
+    public int outputCount() {
+        return 1;
+    }
+
+    @Override
+    public void next(double high, double low, double close, double[] out) {
+        double range = high - low;
+        if (!Double.isNaN(prevClose)) {
+            range = Math.max(range, Math.max(Math.abs(high - prevClose), Math.abs(low - prevClose)));
+        }
+        prevClose = close;
+        if (count < period) {
+            value += range / period;
+            count++;
+            out[0] = count < period ? Double.NaN : value;
+            return;
+        }
+        value = (value * (period - 1) + range) / period;
+        out[0] = value;
+    }
+
+    @Override
+    public Atr copy() {
+        return new Atr(this);
+    }
+}
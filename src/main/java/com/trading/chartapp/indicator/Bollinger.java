@@ -0,0 +1,68 @@
+package com.trading.chartapp.indicator;
+
+// Bollinger bands over closes: upper, middle and lower, from running sums of x and x^2
+public class Bollinger implements StreamingIndicator {
+    private final double[] window;
+    private final double width;
+    private int next;
+    private int count;
+    private double sum;
+    private double sumSq;
+
+    public Bollinger(int period, double width) {
+        this.window = new double[Math.max(1, period)];
+        this.width = width;
+    }
+
+    private Bollinger(Bollinger other) {
+        this.window = other.window.clone();
+        this.width = other.width;
+        this.next = other.next;
+        this.count = other.count;
+        this.sum = other.sum;
+        this.sumSq = other.sumSq;
+    }
+
+    @Override
+    public int outputCount() {
+        return 3;
+    }
+
+    @Override
+    public void next(double high, double low, double close, double[] out) {
+        if (count == window.length) {
+            double old = window[next];
+            sum -= old;
+            sumSq -= old * old;
+        } else {
+            count++;
+        }
+        window[next] = close;
+        sum += close;
+        sumSq += close * close;
+        next = (next + 1) % window.length;
+        if (next == 0) {
+            // Re-sum once per lap so rounding in the running sums cannot build up
+            sum = 0;
+            sumSq = 0;
+            for (int i = 0; i < count; i++) {
+                sum += window[i];
+                sumSq += window[i] * window[i];
+            }
+        }
+        if (count < window.length) {
+            out[0] = out[1] = out[2] = Double.NaN;
+            return;
+        }
+        double mean = sum / count;
+        double deviation = Math.sqrt(Math.max(0, sumSq / count - mean * mean));
+        out[0] = mean + width * deviation;
+        out[1] = mean;
+        out[2] = mean - width * deviation;
+    }
+
+    @Override
+    public Bollinger copy() {
+        return new Bollinger(this);
+    }
+}
@@ -0,0 +1,48 @@
+package com.trading.chartapp.indicator;
+
+// Exponential moving average of closes, seeded with the simple average of the first period values
+public class Ema implements StreamingIndicator {
+    private final int period;
+    private final double alpha;
+    private int count;
+    private double value;
+
+    public Ema(int period) {
+        this.period = Math.max(1, period);
+        this.alpha = 2.0 / (this.period + 1);
+    }
+
+    private Ema(Ema other) {
+        this.period = other.period;
+        this.alpha = other.alpha;
+        this.count = other.count;
+        this.value = other.value;
+    }
+
+    @Override
+    public int outputCount() {
+        return 1;
+    }
+
+    @Override
+    public void next(double high, double low, double close, double[] out) {
+        out[0] = add(close);
+    }
+
+    double add(double x) {
+        if (count < period) {
+            value += x;
+            count++;
+            if (count < period) return Double.NaN;
+            value /= period;
+            return value;
+        }
+        value += alpha * (x - value);
+        return value;
+    }
+
+    @Override
+    public Ema copy() {
+        return new Ema(this);
+    }
+}
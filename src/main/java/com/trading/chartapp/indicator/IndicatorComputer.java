@@ -0,0 +1,256 @@
+package com.trading.chartapp.indicator;
+
+import com.trading.chartapp.cache.SeriesKey;
+import com.trading.chartapp.model.CandleSeries;
+import com.trading.chartapp.model.Timeframe;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Computes indicator columns on a bounded fork-join pool and caches them per symbol,
+ * timeframe, indicator, period, candle range and {@link CandleSeries#version() content version},
+ * so panels showing copies of the same rows share one computation.
+ *
+ * Indicators run in parallel with each other. Fixed-window indicators (SMA, Bollinger) on
+ * long histories are also split into chunks that each warm up on the period - 1 rows before
+ * them. That equals one sequential pass up to floating-point rounding, since the running sums
+ * start over at each chunk. Recursive ones (EMA, RSI, MACD, ATR) depend on every earlier bar
+ * and stay sequential.
+ *
+ * Pool size and cache budget are set with {@code chartapp.indicator.parallelism} and
+ * {@code chartapp.indicator.cacheBytes}.
+ */
+public final class IndicatorComputer {
+    private static final int PARALLELISM = Integer.getInteger("chartapp.indicator.parallelism",
+            Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors())));
+    private static final long CACHE_BYTES = Long.getLong("chartapp.indicator.cacheBytes", 64L * 1024 * 1024);
+    // Below this many rows a single pass is cheaper than splitting
+    private static final int MIN_CHUNK = 16_384;
+
+    private static final ForkJoinPool POOL = new ForkJoinPool(PARALLELISM, pool -> {
+        ForkJoinWorkerThread t = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        t.setName("chart-indicator-" + t.getPoolIndex());
+        t.setDaemon(true);
+        return t;
+    }, null, false);
+
+    // Access-ordered, so iteration starts at the least recently used entry
+    private static final LinkedHashMap<Key, Result> CACHE = new LinkedHashMap<>(16, 0.75f, true);
+    private static long cachedBytes = 0;
+    private static long hits = 0;
+    private static long misses = 0;
+
+    private IndicatorComputer() {
+    }
+
+    /**
+     * Output columns for every row of a candle series, plus the indicator state after all
+     * but the last row. Shared between callers; the columns must not be written to.
+     */
+    public static final class Result {
+        final double[][] columns;
+        final StreamingIndicator state;
+
+        Result(double[][] columns, StreamingIndicator state) {
+            this.columns = columns;
+            this.state = state;
+        }
+
+        long estimatedBytes() {
+            return columns.length * (columns.length == 0 ? 0 : columns[0].length * 8L + 16) + 64;
+        }
+    }
+
+    private static final class Key {
+        final SeriesKey series;
+        final int size;
+        final long firstTs;
+        final long lastTs;
+        // Changes with every write, so a live update to any field of any row is a different key
+        final long version;
+
+        Key(String symbol, Timeframe tf, IndicatorType type, int period, CandleSeries candles) {
+            this.series = new SeriesKey(symbol, tf, type.name() + "(" + period + ")");
+            this.size = candles.size();
+            this.firstTs = size == 0 ? 0 : candles.getTimestamp(0);
+            this.lastTs = size == 0 ? 0 : candles.getTimestamp(size - 1);
+            this.version = candles.version();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return size == other.size && firstTs == other.firstTs && lastTs == other.lastTs
+                    && version == other.version && series.equals(other.series);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(series, size, firstTs, lastTs, version);
+        }
+    }
+
+    /**
+     * Returns results for the requested indicators, computing the ones not cached in
+     * parallel. Safe to call from any thread; the caller blocks until all are done.
+     */
+    public static Map<IndicatorType, Result> compute(String symbol, Timeframe tf, CandleSeries candles,
+                                                     Collection<IndicatorType> types, int period) {
+        Map<IndicatorType, Result> results = new EnumMap<>(IndicatorType.class);
+        List<IndicatorType> missing = new ArrayList<>();
+        List<Key> missingKeys = new ArrayList<>();
+        synchronized (CACHE) {
+            for (IndicatorType type : types) {
+                Key key = new Key(symbol, tf, type, period, candles);
+                Result cached = CACHE.get(key);
+                if (cached != null) {
+                    hits++;
+                    results.put(type, cached);
+                } else {
+                    misses++;
+                    missing.add(type);
+                    missingKeys.add(key);
+                }
+            }
+        }
+        if (missing.isEmpty()) return results;
+        List<RecursiveTask<Result>> tasks = new ArrayList<>();
+        for (IndicatorType type : missing) {
+            tasks.add(new IndicatorTask(type, period, candles));
+        }
+        for (RecursiveTask<Result> task : tasks) POOL.execute(task);
+        for (int i = 0; i < tasks.size(); i++) {
+            Result result = tasks.get(i).join();
+            results.put(missing.get(i), result);
+            put(missingKeys.get(i), result);
+        }
+        return results;
+    }
+
+    // One pass on the calling thread, bypassing the cache; for series that were modified in place
+    public static Result computeSequential(IndicatorType type, int period, CandleSeries candles) {
+        int n = candles.size();
+        double[][] columns = new double[type.outputCount()][n];
+        StreamingIndicator state = type.create(period);
+        run(state, candles, 0, Math.max(0, n - 1), columns);
+        if (n > 0) run(state.copy(), candles, n - 1, n, columns);
+        return new Result(columns, state);
+    }
+
+    // Feeds rows [from, to) into the state; outputs are discarded when columns is null
+    private static void run(StreamingIndicator state, CandleSeries candles, int from, int to, double[][] columns) {
+        double[] out = new double[state.outputCount()];
+        for (int i = from; i < to; i++) {
+            state.next(candles.getHigh(i), candles.getLow(i), candles.getClose(i), out);
+            if (columns == null) continue;
+            for (int k = 0; k < out.length; k++) columns[k][i] = out[k];
+        }
+    }
+
+    private static final class IndicatorTask extends RecursiveTask<Result> {
+        private final IndicatorType type;
+        private final int period;
+        private final CandleSeries candles;
+
+        IndicatorTask(IndicatorType type, int period, CandleSeries candles) {
+            this.type = type;
+            this.period = period;
+            this.candles = candles;
+        }
+
+        @Override
+        protected Result compute() {
+            int n = candles.size();
+            int window = type.window(period);
+            int chunk = Math.max(MIN_CHUNK, n / (PARALLELISM * 4));
+            if (window <= 0 || n <= 2 * chunk) {
+                return computeSequential(type, period, candles);
+            }
+            double[][] columns = new double[type.outputCount()][n];
+            // Rows [0, n - 1) are split into chunks; the last chunk's state becomes the committed state
+            List<ChunkTask> chunks = new ArrayList<>();
+            for (int from = 0; from < n - 1; from += chunk) {
+                chunks.add(new ChunkTask(type, period, window, candles, from, Math.min(n - 1, from + chunk), columns));
+            }
+            invokeAll(chunks);
+            StreamingIndicator state = chunks.get(chunks.size() - 1).state;
+            run(state.copy(), candles, n - 1, n, columns);
+            return new Result(columns, state);
+        }
+    }
+
+    private static final class ChunkTask extends RecursiveAction {
+        private final IndicatorType type;
+        private final int period;
+        private final int window;
+        private final CandleSeries candles;
+        private final int from;
+        private final int to;
+        private final double[][] columns;
+        StreamingIndicator state;
+
+        ChunkTask(IndicatorType type, int period, int window, CandleSeries candles, int from, int to, double[][] columns) {
+            this.type = type;
+            this.period = period;
+            this.window = window;
+            this.candles = candles;
+            this.from = from;
+            this.to = to;
+            this.columns = columns;
+        }
+
+        @Override
+        protected void compute() {
+            state = type.create(period);
+            // Warm up on the rows before the chunk; their values belong to the previous chunk
+            run(state, candles, Math.max(0, from - window + 1), from, null);
+            run(state, candles, from, to, columns);
+        }
+    }
+
+    private static void put(Key key, Result result) {
+        synchronized (CACHE) {
+            Result previous = CACHE.put(key, result);
+            if (previous != null) cachedBytes -= previous.estimatedBytes();
+            cachedBytes += result.estimatedBytes();
+            Iterator<Result> it = CACHE.values().iterator();
+            while (cachedBytes > CACHE_BYTES && it.hasNext()) {
+                Result evicted = it.next();
+                if (evicted == result) break;
+                cachedBytes -= evicted.estimatedBytes();
+                it.remove();
+            }
+        }
+    }
+
+    public static void clearCache() {
+        synchronized (CACHE) {
+            CACHE.clear();
+            cachedBytes = 0;
+        }
+    }
+
+    public static String cacheStats() {
+        synchronized (CACHE) {
+            return String.format("indicator cache: %d hits, %d misses, %d entries, %.1f/%.1f MB",
+                    hits, misses, CACHE.size(), cachedBytes / 1048576.0, CACHE_BYTES / 1048576.0);
+        }
+    }
+
+    public static void shutdown() {
+        POOL.shutdownNow();
+    }
+}
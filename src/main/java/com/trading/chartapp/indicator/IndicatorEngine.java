@@ -0,0 +1,177 @@
+package com.trading.chartapp.indicator;
+
+import com.trading.chartapp.model.CandleSeries;
+import com.trading.chartapp.model.IndicatorSeries;
+import com.trading.chartapp.model.Timeframe;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Computes indicators in process from a candle series. Each active indicator keeps its
+ * streaming state as of the last closed bar, so live updates cost O(1) per bar. Work that may
+ * miss the shared cache is done elsewhere and handed over with {@link #adopt}. Not
+ * thread-safe; owned by one controller.
+ */
+public class IndicatorEngine {
+    private final Map<IndicatorType, Run> runs = new EnumMap<>(IndicatorType.class);
+    private CandleSeries candles;
+    private String symbol;
+    private Timeframe timeframe;
+    private int period;
+
+    private static final class Run {
+        final IndicatorType type;
+        // State after rows [0, committed); the newest row is always evaluated on a copy
+        StreamingIndicator state;
+        int committed;
+        final IndicatorSeries[] outputs;
+
+        Run(IndicatorType type) {
+            this.type = type;
+            this.outputs = new IndicatorSeries[type.outputCount()];
+        }
+    }
+
+    public IndicatorEngine(int period) {
+        this.period = period;
+    }
+
+    public static List<String> outputNames() {
+        List<String> names = new ArrayList<>();
+        for (IndicatorType type : IndicatorType.values()) {
+            for (String output : type.getOutputs()) names.add(output);
+        }
+        return names;
+    }
+
+    public int getPeriod() {
+        return period;
+    }
+
+    // Period for later computations; active indicators keep their values until new results are adopted
+    public void setPeriod(int period) {
+        this.period = period;
+    }
+
+    public boolean isActive(IndicatorType type) {
+        return runs.containsKey(type);
+    }
+
+    public Set<IndicatorType> activeTypes() {
+        Set<IndicatorType> types = EnumSet.noneOf(IndicatorType.class);
+        types.addAll(runs.keySet());
+        return types;
+    }
+
+    /**
+     * Computes the given indicators over all rows of {@code candles}, through the shared
+     * {@link IndicatorComputer} cache. Switching to another candle series drops every
+     * indicator that is not requested again.
+     */
+    public Map<String, IndicatorSeries> compute(String symbol, Timeframe timeframe, CandleSeries candles,
+                                                Collection<IndicatorType> types) {
+        if (candles != this.candles) {
+            runs.clear();
+            this.candles = candles;
+        }
+        this.symbol = symbol;
+        this.timeframe = timeframe;
+        Map<String, IndicatorSeries> result = new HashMap<>();
+        if (types.isEmpty()) return result;
+        Map<IndicatorType, IndicatorComputer.Result> computed =
+                IndicatorComputer.compute(symbol, timeframe, candles, types, period);
+        for (Map.Entry<IndicatorType, IndicatorComputer.Result> entry : computed.entrySet()) {
+            Run run = new Run(entry.getKey());
+            install(run, entry.getValue());
+            runs.put(run.type, run);
+            for (IndicatorSeries series : run.outputs) result.put(series.getName(), series);
+        }
+        return result;
+    }
+
+    /**
+     * Takes over results computed on another thread from {@code snapshot}, a copy of the
+     * engine's series taken when the work started. Rows the live feed changed or added since are
+     * evaluated from the results' state. Returns the output series, or nothing if the engine has
+     * moved to another series or period meanwhile.
+     */
+    public Map<String, IndicatorSeries> adopt(CandleSeries candles, CandleSeries snapshot, int period,
+                                              Map<IndicatorType, IndicatorComputer.Result> computed) {
+        Map<String, IndicatorSeries> result = new HashMap<>();
+        if (candles != this.candles || period != this.period) return result;
+        int rows = snapshot.size();
+        boolean changed = rows < candles.size() || (rows > 0 && (candles.getClose(rows - 1) != snapshot.getClose(rows - 1)
+                || candles.getHigh(rows - 1) != snapshot.getHigh(rows - 1) || candles.getLow(rows - 1) != snapshot.getLow(rows - 1)));
+        for (Map.Entry<IndicatorType, IndicatorComputer.Result> entry : computed.entrySet()) {
+            Run run = new Run(entry.getKey());
+            install(run, entry.getValue(), rows);
+            if (changed) advance(run);
+            runs.put(run.type, run);
+            for (IndicatorSeries series : run.outputs) result.put(series.getName(), series);
+        }
+        return result;
+    }
+
+    public void deactivate(IndicatorType type) {
+        runs.remove(type);
+    }
+
+    /**
+     * Brings active indicators up to date after rows from {@code firstChanged} on were
+     * updated in place or appended to the engine's candle series. Only a change to a bar
+     * before the last committed one forces a full recompute.
+     */
+    public void update(CandleSeries candles, int firstChanged) {
+        if (candles != this.candles) return;
+        for (Run run : runs.values()) {
+            if (firstChanged < run.committed) {
+                install(run, IndicatorComputer.computeSequential(run.type, period, candles));
+            } else {
+                advance(run);
+            }
+        }
+    }
+
+    // Results may be shared with other engines: the state is copied and the columns are copied on first write
+    private void install(Run run, IndicatorComputer.Result result) {
+        install(run, result, candles.size());
+    }
+
+    // Result of the first rows of the series; columns are padded to the current length for advance()
+    private void install(Run run, IndicatorComputer.Result result, int rows) {
+        int n = candles.size();
+        run.state = result.state.copy();
+        run.committed = Math.max(0, rows - 1);
+        for (int k = 0; k < run.outputs.length; k++) {
+            double[] column = rows == n ? result.columns[k] : Arrays.copyOf(result.columns[k], n);
+            run.outputs[k] = IndicatorSeries.alignedTo(candles, run.type.output(k), column);
+        }
+    }
+
+    // Commits newly closed bars into the state and re-evaluates the forming bar on a copy
+    private void advance(Run run) {
+        int n = candles.size();
+        double[] out = new double[run.outputs.length];
+        for (int i = run.committed; i < n; i++) {
+            StreamingIndicator target = i == n - 1 ? run.state.copy() : run.state;
+            target.next(candles.getHigh(i), candles.getLow(i), candles.getClose(i), out);
+            for (int k = 0; k < out.length; k++) {
+                IndicatorSeries series = run.outputs[k];
+                if (i < series.size()) {
+                    series.set(i, out[k]);
+                } else {
+                    series.add(candles.getTimestamp(i), out[k]);
+                }
+            }
+        }
+        run.committed = Math.max(run.committed, n - 1);
+    }
+}
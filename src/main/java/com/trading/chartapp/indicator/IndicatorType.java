@@ -0,0 +1,71 @@
+package com.trading.chartapp.indicator;
+
+/**
+ * Indicators the engine can compute, with the series names they produce. Names are prefixed
+ * so they never clash with indicators exported to the database.
+ */
+public enum IndicatorType {
+    SMA("Calc SMA"),
+    EMA("Calc EMA"),
+    RSI("Calc RSI"),
+    MACD("Calc MACD", "Calc MACD Signal", "Calc MACD Hist"),
+    BOLLINGER("Calc BB Upper", "Calc BB Middle", "Calc BB Lower"),
+    ATR("Calc ATR");
+
+    // MACD keeps its conventional periods; the chart period drives the single-period indicators
+    private static final int MACD_FAST = 12;
+    private static final int MACD_SLOW = 26;
+    private static final int MACD_SIGNAL = 9;
+    private static final double BOLLINGER_WIDTH = 2.0;
+
+    private final String[] outputs;
+
+    IndicatorType(String... outputs) {
+        this.outputs = outputs;
+    }
+
+    public String[] getOutputs() {
+        return outputs.clone();
+    }
+
+    String output(int i) {
+        return outputs[i];
+    }
+
+    int outputCount() {
+        return outputs.length;
+    }
+
+    public StreamingIndicator create(int period) {
+        switch (this) {
+            case SMA: return new Sma(period);
+            case EMA: return new Ema(period);
+            case RSI: return new Rsi(period);
+            case MACD: return new Macd(MACD_FAST, MACD_SLOW, MACD_SIGNAL);
+            case BOLLINGER: return new Bollinger(period, BOLLINGER_WIDTH);
+            case ATR: return new Atr(period);
+            default: throw new IllegalStateException("Unknown indicator type: " + this);
+        }
+    }
+
+    // Rows one value depends on, or -1 for recursive indicators that depend on the whole history
+    int window(int period) {
+        switch (this) {
+            case SMA:
+            case BOLLINGER:
+                return Math.max(1, period);
+            default:
+                return -1;
+        }
+    }
+
+    // The type producing the given series name, or null for indicators that come from the database
+    public static IndicatorType ofOutput(String name) {
+        for (IndicatorType type : values()) {
+            for (String output : type.outputs) {
+                if (output.equals(name)) return type;
+            }
+        }
+        return null;
+    }
+}
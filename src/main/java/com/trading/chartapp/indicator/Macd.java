@@ -0,0 +1,41 @@
+package com.trading.chartapp.indicator;
+
+// MACD line, signal line and histogram; outputs are in that order
+public class Macd implements StreamingIndicator {
+    private final Ema fast;
+    private final Ema slow;
+    private final Ema signal;
+
+    public Macd(int fastPeriod, int slowPeriod, int signalPeriod) {
+        this.fast = new Ema(fastPeriod);
+        this.slow = new Ema(slowPeriod);
+        this.signal = new Ema(signalPeriod);
+    }
+
+    private Macd(Macd other) {
+        this.fast = other.fast.copy();
+        this.slow = other.slow.copy();
+        this.signal = other.signal.copy();
+    }
+
+    @Override
+    public int outputCount() {
+        return 3;
+    }
+
+    @Override
+    public void next(double high, double low, double close, double[] out) {
+        double f = fast.add(close);
+        double s = slow.add(close);
+        double macd = f - s;
+        double sig = Double.isNaN(macd) ? Double.NaN : signal.add(macd);
+        out[0] = macd;
+        out[1] = sig;
+        out[2] = macd - sig;
+    }
+
+    @Override
+    public Macd copy() {
+        return new Macd(this);
+    }
+}
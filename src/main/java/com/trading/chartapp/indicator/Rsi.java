@@ -0,0 +1,58 @@
+package com.trading.chartapp.indicator;
+
+// Wilder's relative strength index on closes
+public class Rsi implements StreamingIndicator {
+    private final int period;
+    private double prevClose = Double.NaN;
+    private int changes;
+    private double avgGain;
+    private double avgLoss;
+
+    public Rsi(int period) {
+        this.period = Math.max(1, period);
+    }
+
+    private Rsi(Rsi other) {
+        this.period = other.period;
+        this.prevClose = other.prevClose;
+        this.changes = other.changes;
+        this.avgGain = other.avgGain;
+        this.avgLoss = other.avgLoss;
+    }
+
+    @Override
+    public int outputCount() {
+        return 1;
+    }
+
+    @Override
+    public void next(double high, double low, double close, double[] out) {
+        if (Double.isNaN(prevClose)) {
+            prevClose = close;
+            out[0] = Double.NaN;
+            return;
+        }
+        double change = close - prevClose;
+        prevClose = close;
+        double gain = Math.max(change, 0);
+        double loss = Math.max(-change, 0);
+        if (changes < period) {
+            avgGain += gain / period;
+            avgLoss += loss / period;
+            changes++;
+            if (changes < period) {
+                out[0] = Double.NaN;
+                return;
+            }
+        } else {
+            avgGain = (avgGain * (period - 1) + gain) / period;
+            avgLoss = (avgLoss * (period - 1) + loss) / period;
+        }
+        out[0] = avgLoss == 0 ? 100 : 100 - 100 / (1 + avgGain / avgLoss);
+    }
+
+    @Override
+    public Rsi copy() {
+        return new Rsi(this);
+    }
+}
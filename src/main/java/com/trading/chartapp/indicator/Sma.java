@@ -0,0 +1,52 @@
+package com.trading.chartapp.indicator;
+
+// Simple moving average of closes over a ring buffer with a running sum
+public class Sma implements StreamingIndicator {
+    private final double[] window;
+    private int next;
+    private int count;
+    private double sum;
+
+    public Sma(int period) {
+        this.window = new double[Math.max(1, period)];
+    }
+
+    private Sma(Sma other) {
+        this.window = other.window.clone();
+        this.next = other.next;
+        this.count = other.count;
+        this.sum = other.sum;
+    }
+
+    @Override
+    public int outputCount() {
+        return 1;
+    }
+
+    @Override
+    public void next(double high, double low, double close, double[] out) {
+        out[0] = add(close);
+    }
+
+    double add(double value) {
+        if (count == window.length) {
+            sum -= window[next];
+        } else {
+            count++;
+        }
+        window[next] = value;
+        sum += value;
+        next = (next + 1) % window.length;
+        if (next == 0) {
+            // Re-sum once per lap so rounding in the running sum cannot build up
+            sum = 0;
+            for (int i = 0; i < count; i++) sum += window[i];
+        }
+        return count == window.length ? sum / count : Double.NaN;
+    }
+
+    @Override
+    public Sma copy() {
+        return new Sma(this);
+    }
+}
@@ -0,0 +1,15 @@
+package com.trading.chartapp.indicator;
+
+/**
+ * An indicator that consumes one bar at a time in O(1) and keeps only the state it needs
+ * for the next bar. Values are NaN until enough bars have been seen.
+ */
+public interface StreamingIndicator {
+    int outputCount();
+
+    // Consumes the next bar and writes one value per output into {@code out}
+    void next(double high, double low, double close, double[] out);
+
+    // Independent copy of the current state, used to evaluate a still-forming bar
+    StreamingIndicator copy();
+}
@@ -0,0 +1,42 @@
+package com.trading.chartapp.model;
+
+/**
+ * Read-only candle rows kept outside the heap arrays of a {@link CandleSeries}, for example
+ * in a memory-mapped file. A series backed by it reads through it until its first write,
+ * which copies the rows into arrays.
+ */
+public interface CandleColumns {
+    int size();
+
+    long timestamp(int i);
+
+    double open(int i);
+
+    double high(int i);
+
+    double low(int i);
+
+    double close(int i);
+
+    double volume(int i);
+
+    // View of rows [from, to) over the same storage
+    CandleColumns slice(int from, int to);
+
+    // Heap held by the view itself; mapped or off-heap memory is not counted
+    long estimatedBytes();
+
+    // See CandleSeries.mapPrices; encoded storage can map its raw values without decoding each price
+    default void mapPrices(int from, int to, double base, double min, double scale,
+                           double[] openY, double[] highY, double[] lowY, double[] closeY, boolean[] up) {
+        for (int i = from, k = 0; i < to; i++, k++) {
+            double o = open(i);
+            double c = close(i);
+            openY[k] = base - (o - min) * scale;
+            closeY[k] = base - (c - min) * scale;
+            highY[k] = base - (high(i) - min) * scale;
+            lowY[k] = base - (low(i) - min) * scale;
+            up[k] = c >= o;
+        }
+    }
+}
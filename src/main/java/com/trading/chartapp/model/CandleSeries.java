@@ -0,0 +1,287 @@
+package com.trading.chartapp.model;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Columnar candle storage: one primitive array per field instead of one object per candle.
+ * A series can also read through {@link CandleColumns} (a mapped file, {@link OffHeapCandles})
+ * without copying;
+ * such a series switches to its own arrays on the first write.
+ */
+public class CandleSeries implements TimeSeries<CandleSeries> {
+    private static final int DEFAULT_CAPACITY = 256;
+    private static final AtomicLong VERSIONS = new AtomicLong();
+
+    private long[] timestamps;
+    private double[] open;
+    private double[] high;
+    private double[] low;
+    private double[] close;
+    private double[] volume;
+    private int size;
+    // Non-null while the rows are read through external storage; the arrays are unused then
+    private CandleColumns columns;
+    // Identifies the rows' content; 0 until asked for after a write
+    private long version;
+
+    public CandleSeries() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public CandleSeries(int capacity) {
+        int cap = Math.max(1, capacity);
+        this.timestamps = new long[cap];
+        this.open = new double[cap];
+        this.high = new double[cap];
+        this.low = new double[cap];
+        this.close = new double[cap];
+        this.volume = new double[cap];
+    }
+
+    private CandleSeries(long[] timestamps, double[] open, double[] high, double[] low,
+                         double[] close, double[] volume, int size) {
+        this.timestamps = timestamps;
+        this.open = open;
+        this.high = high;
+        this.low = low;
+        this.close = close;
+        this.volume = volume;
+        this.size = size;
+    }
+
+    // Zero-copy view over external rows
+    public CandleSeries(CandleColumns columns) {
+        this.columns = columns;
+        this.size = columns.size();
+    }
+
+    // View that reuses an existing heap copy of its timestamps instead of copying them on demand
+    CandleSeries(CandleColumns columns, long[] timestamps) {
+        this(columns);
+        this.timestamps = timestamps;
+    }
+
+    public void add(long timestamp, double open, double high, double low, double close, double volume) {
+        if (columns != null) materialize(size + 1);
+        if (size == timestamps.length) {
+            grow(size + 1);
+        }
+        this.timestamps[size] = timestamp;
+        this.open[size] = open;
+        this.high[size] = high;
+        this.low[size] = low;
+        this.close[size] = close;
+        this.volume[size] = volume;
+        size++;
+        version = 0;
+    }
+
+    // Overwrites the newest row in place, e.g. while its bar is still forming
+    public void updateLast(double open, double high, double low, double close, double volume) {
+        int i = Objects.checkIndex(size - 1, size);
+        if (columns != null) materialize(size);
+        this.open[i] = open;
+        this.high[i] = high;
+        this.low[i] = low;
+        this.close[i] = close;
+        this.volume[i] = volume;
+        version = 0;
+    }
+
+    public int size() { return size; }
+    public boolean isEmpty() { return size == 0; }
+    // True while the rows are read through external columns, e.g. a cached compact segment
+    public boolean isView() { return columns != null; }
+
+    public long getTimestamp(int i) {
+        Objects.checkIndex(i, size);
+        return columns != null ? columns.timestamp(i) : timestamps[i];
+    }
+
+    public double getOpen(int i) {
+        Objects.checkIndex(i, size);
+        return columns != null ? columns.open(i) : open[i];
+    }
+
+    public double getHigh(int i) {
+        Objects.checkIndex(i, size);
+        return columns != null ? columns.high(i) : high[i];
+    }
+
+    public double getLow(int i) {
+        Objects.checkIndex(i, size);
+        return columns != null ? columns.low(i) : low[i];
+    }
+
+    public double getClose(int i) {
+        Objects.checkIndex(i, size);
+        return columns != null ? columns.close(i) : close[i];
+    }
+
+    public double getVolume(int i) {
+        Objects.checkIndex(i, size);
+        return columns != null ? columns.volume(i) : volume[i];
+    }
+
+    /**
+     * A number shared by series whose rows are unmodified copies or views of the same rows: a
+     * slice, or an encoded or off-heap copy, keeps the version of its source, and every write
+     * gives a series a new one. Together with the size and the first and last timestamp it
+     * identifies the content of a series without reading it.
+     */
+    public long version() {
+        if (version == 0) version = VERSIONS.incrementAndGet();
+        return version;
+    }
+
+    // Marks this series as holding the same rows as {@code source}
+    CandleSeries sameContentAs(CandleSeries source) {
+        version = source.version();
+        return this;
+    }
+
+    // Backing timestamp array, shared with aligned indicator columns; only the first size() entries are valid.
+    // For a view this is a copy of the timestamps, made once.
+    long[] timestampColumn() {
+        if (columns != null && timestamps == null) {
+            long[] copy = new long[size];
+            for (int i = 0; i < size; i++) copy[i] = columns.timestamp(i);
+            timestamps = copy;
+        }
+        return timestamps;
+    }
+
+    /**
+     * Maps the prices of rows [from, to) to pixel rows, base - (price - min) * scale, written to
+     * the arrays from index 0; up[k] tells whether the candle closed at or above its open.
+     */
+    public void mapPrices(int from, int to, double base, double min, double scale,
+                          double[] openY, double[] highY, double[] lowY, double[] closeY, boolean[] up) {
+        Objects.checkFromToIndex(from, to, size);
+        if (columns != null) {
+            columns.mapPrices(from, to, base, min, scale, openY, highY, lowY, closeY, up);
+            return;
+        }
+        for (int i = from, k = 0; i < to; i++, k++) {
+            double o = open[i];
+            double c = close[i];
+            openY[k] = base - (o - min) * scale;
+            closeY[k] = base - (c - min) * scale;
+            highY[k] = base - (high[i] - min) * scale;
+            lowY[k] = base - (low[i] - min) * scale;
+            up[k] = c >= o;
+        }
+    }
+
+    // The external rows this series reads through, or null once it holds its own arrays
+    CandleColumns columns() {
+        return columns;
+    }
+
+    // Materializes a single candle; use the column getters in hot loops
+    public Candlestick get(int i) {
+        return new Candlestick(getTimestamp(i), getOpen(i), getHigh(i), getLow(i), getClose(i), getVolume(i));
+    }
+
+    // Read-only List view for code that still expects List<Candlestick>
+    public List<Candlestick> asList() {
+        return new AbstractList<Candlestick>() {
+            @Override
+            public Candlestick get(int index) {
+                return CandleSeries.this.get(index);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    @Override
+    public CandleSeries slice(int from, int to) {
+        Objects.checkFromToIndex(from, to, size);
+        if (columns != null) return new CandleSeries(columns.slice(from, to)).sameContentAs(this);
+        return new CandleSeries(
+                Arrays.copyOfRange(timestamps, from, to),
+                Arrays.copyOfRange(open, from, to),
+                Arrays.copyOfRange(high, from, to),
+                Arrays.copyOfRange(low, from, to),
+                Arrays.copyOfRange(close, from, to),
+                Arrays.copyOfRange(volume, from, to),
+                to - from).sameContentAs(this);
+    }
+
+    @Override
+    public CandleSeries merge(CandleSeries other) {
+        CandleSeries merged = new CandleSeries(size + other.size);
+        int i = 0, j = 0;
+        while (i < size || j < other.size) {
+            if (j == other.size || (i < size && getTimestamp(i) < other.getTimestamp(j))) {
+                merged.add(getTimestamp(i), getOpen(i), getHigh(i), getLow(i), getClose(i), getVolume(i));
+                i++;
+            } else {
+                if (i < size && getTimestamp(i) == other.getTimestamp(j)) i++;
+                merged.add(other.getTimestamp(j), other.getOpen(j), other.getHigh(j), other.getLow(j),
+                        other.getClose(j), other.getVolume(j));
+                j++;
+            }
+        }
+        merged.trimToSize();
+        return merged;
+    }
+
+    @Override
+    public long estimatedBytes() {
+        if (columns != null) {
+            return columns.estimatedBytes() + (timestamps == null ? 0 : timestamps.length * 8L + 16) + 40;
+        }
+        // Six 8-byte columns plus array headers and the object itself
+        return timestamps.length * 48L + 6 * 16 + 40;
+    }
+
+    public void trimToSize() {
+        if (columns == null && size < timestamps.length) {
+            resize(Math.max(1, size));
+        }
+    }
+
+    // Copies the external rows into arrays of at least the given capacity
+    private void materialize(int capacity) {
+        CandleColumns source = columns;
+        int cap = Math.max(1, Math.max(capacity, size));
+        timestamps = new long[cap];
+        open = new double[cap];
+        high = new double[cap];
+        low = new double[cap];
+        close = new double[cap];
+        volume = new double[cap];
+        for (int i = 0; i < size; i++) {
+            timestamps[i] = source.timestamp(i);
+            open[i] = source.open(i);
+            high[i] = source.high(i);
+            low[i] = source.low(i);
+            close[i] = source.close(i);
+            volume[i] = source.volume(i);
+        }
+        columns = null;
+    }
+
+    private void grow(int minCapacity) {
+        int newCapacity = Math.max(minCapacity, timestamps.length + (timestamps.length >> 1));
+        resize(newCapacity);
+    }
+
+    private void resize(int capacity) {
+        timestamps = Arrays.copyOf(timestamps, capacity);
+        open = Arrays.copyOf(open, capacity);
+        high = Arrays.copyOf(high, capacity);
+        low = Arrays.copyOf(low, capacity);
+        close = Arrays.copyOf(close, capacity);
+        volume = Arrays.copyOf(volume, capacity);
+    }
+}
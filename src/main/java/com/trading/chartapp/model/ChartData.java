@@ -1,17 +1,28 @@
 package com.trading.chartapp.model;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
 public class ChartData {
-    private List<Candlestick> candlesticks;
-    private Map<String, Indicator> indicators;
+    private CandleSeries candles;
+    private Map<String, IndicatorSeries> indicators;
+    // Every indicator the source offers, including ones that were not loaded because they are disabled
+    private List<String> availableIndicators;
 
-    public ChartData(List<Candlestick> candlesticks, Map<String, Indicator> indicators) {
-        this.candlesticks = candlesticks;
+    public ChartData(CandleSeries candles, Map<String, IndicatorSeries> indicators) {
+        this(candles, indicators, new ArrayList<>(indicators.keySet()));
+    }
+
+    public ChartData(CandleSeries candles, Map<String, IndicatorSeries> indicators, List<String> availableIndicators) {
+        this.candles = candles;
         this.indicators = indicators;
+        this.availableIndicators = availableIndicators;
     }
 
-    public List<Candlestick> getCandlesticks() { return candlesticks; }
-    public Map<String, Indicator> getIndicators() { return indicators; }
-} 
\ No newline at end of file
+    public CandleSeries getCandles() { return candles; }
+    public Map<String, IndicatorSeries> getIndicators() { return indicators; }
+    public List<String> getAvailableIndicators() { return availableIndicators; }
+
+    public List<Candlestick> getCandlesticks() { return candles.asList(); }
+}
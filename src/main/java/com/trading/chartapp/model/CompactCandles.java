@@ -0,0 +1,299 @@
+package com.trading.chartapp.model;
+
+/**
+ * Candle rows in about 12 bytes each instead of 48, for series kept in the candle cache.
+ *
+ * Timestamps are a base plus a whole number of timeframe steps. Missing bars are marked in a
+ * bitmap over the slots, and a per-word rank turns row i back into its slot. Prices are
+ * integers scaled by the smallest power of ten that represents every price exactly:
+ * - open is an offset from the lowest open of its 64-row block
+ * - high and low are offsets down and up from open
+ * - close is a signed offset from open
+ * The offsets take 16 bits each, or 32 bits for a series with a bar or block that moves more
+ * (about 20 bytes per row). Volume is scaled the same way into an int when every volume fits,
+ * and otherwise kept as a double, which adds 4 bytes per row.
+ *
+ * Every field therefore decodes to the same value that was encoded. A series that does not fit
+ * is left as it is: unaligned timestamps, or prices needing more than eight decimals or 32-bit
+ * offsets.
+ */
+public final class CompactCandles implements CandleColumns {
+    private static final int BLOCK_SHIFT = 6;
+    private static final int MAX_DECIMALS = 8;
+    private static final double[] POW10 = {1, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8};
+
+    private final long base;
+    private final long step;
+    // Null when no slot between the first and last row is missing; then row i is slot i
+    private final long[] present;
+    private final int[] rankBefore;
+    private final double pow;
+    private final long[] blockOpen;
+    // 16-bit offsets; null when the series needs the 32-bit ones
+    private final char[] open;
+    private final char[] high;
+    private final char[] low;
+    private final short[] close;
+    private final int[] wide;
+    // Scaled by volumePow; null when the volumes are kept in exactVolume instead
+    private final int[] volume;
+    private final double volumePow;
+    private final double[] exactVolume;
+    private final int offset;
+    private final int size;
+
+    private CompactCandles(CompactCandles source, int offset, int size) {
+        this.base = source.base;
+        this.step = source.step;
+        this.present = source.present;
+        this.rankBefore = source.rankBefore;
+        this.pow = source.pow;
+        this.blockOpen = source.blockOpen;
+        this.open = source.open;
+        this.high = source.high;
+        this.low = source.low;
+        this.close = source.close;
+        this.wide = source.wide;
+        this.volume = source.volume;
+        this.volumePow = source.volumePow;
+        this.exactVolume = source.exactVolume;
+        this.offset = offset;
+        this.size = size;
+    }
+
+    private CompactCandles(long base, long step, long[] present, int[] rankBefore, double pow, long[] blockOpen,
+                           char[] open, char[] high, char[] low, short[] close, int[] wide,
+                           int[] volume, double volumePow, double[] exactVolume, int size) {
+        this.base = base;
+        this.step = step;
+        this.present = present;
+        this.rankBefore = rankBefore;
+        this.pow = pow;
+        this.blockOpen = blockOpen;
+        this.open = open;
+        this.high = high;
+        this.low = low;
+        this.close = close;
+        this.wide = wide;
+        this.volume = volume;
+        this.volumePow = volumePow;
+        this.exactVolume = exactVolume;
+        this.offset = 0;
+        this.size = size;
+    }
+
+    // Series reading through the encoded rows, or null if {@code s} does not fit the encoding
+    public static CandleSeries encode(CandleSeries s, long step) {
+        int n = s.size();
+        if (n == 0 || step <= 0) return null;
+
+        long base = s.getTimestamp(0);
+        long span = (s.getTimestamp(n - 1) - base) / step + 1;
+        // A bitmap that costs more than a byte per row is not worth it
+        if (span > 8L * n + 64 || span > Integer.MAX_VALUE) return null;
+        long[] present = null;
+        if (span != n) present = new long[(int) ((span + 63) >>> 6)];
+        for (int i = 0; i < n; i++) {
+            long delta = s.getTimestamp(i) - base;
+            if (delta % step != 0) return null;
+            if (present != null) {
+                long slot = delta / step;
+                present[(int) (slot >>> 6)] |= 1L << slot;
+            }
+        }
+        int[] rankBefore = null;
+        if (present != null) {
+            rankBefore = new int[present.length];
+            for (int w = 1; w < present.length; w++) {
+                rankBefore[w] = rankBefore[w - 1] + Long.bitCount(present[w - 1]);
+            }
+        }
+
+        int decimals = 0;
+        for (int i = 0; i < n && decimals <= MAX_DECIMALS; i++) {
+            decimals = Math.max(decimals, decimals(s.getOpen(i), decimals));
+            decimals = Math.max(decimals, decimals(s.getHigh(i), decimals));
+            decimals = Math.max(decimals, decimals(s.getLow(i), decimals));
+            decimals = Math.max(decimals, decimals(s.getClose(i), decimals));
+        }
+        if (decimals > MAX_DECIMALS) return null;
+        double pow = POW10[decimals];
+
+        long[] blockOpen = new long[((n - 1) >> BLOCK_SHIFT) + 1];
+        // Offsets per row: open from its block minimum, then high, open - low and close from open
+        long[] offsets = new long[4 * n];
+        long maxOffset = 0;
+        long maxClose = 0;
+        for (int b = 0; b < blockOpen.length; b++) {
+            int from = b << BLOCK_SHIFT;
+            int to = Math.min(n, from + (1 << BLOCK_SHIFT));
+            long min = Long.MAX_VALUE;
+            for (int i = from; i < to; i++) min = Math.min(min, Math.round(s.getOpen(i) * pow));
+            blockOpen[b] = min;
+            for (int i = from; i < to; i++) {
+                long o = Math.round(s.getOpen(i) * pow);
+                long h = Math.round(s.getHigh(i) * pow) - o;
+                long l = o - Math.round(s.getLow(i) * pow);
+                long c = Math.round(s.getClose(i) * pow) - o;
+                if (h < 0 || l < 0) return null;
+                offsets[4 * i] = o - min;
+                offsets[4 * i + 1] = h;
+                offsets[4 * i + 2] = l;
+                offsets[4 * i + 3] = c;
+                maxOffset = Math.max(maxOffset, Math.max(o - min, Math.max(h, l)));
+                maxClose = Math.max(maxClose, Math.abs(c));
+            }
+        }
+        if (maxOffset > Integer.MAX_VALUE || maxClose > Integer.MAX_VALUE) return null;
+        boolean narrow = maxOffset <= Character.MAX_VALUE && maxClose <= Short.MAX_VALUE;
+        char[] open = narrow ? new char[n] : null;
+        char[] high = narrow ? new char[n] : null;
+        char[] low = narrow ? new char[n] : null;
+        short[] close = narrow ? new short[n] : null;
+        int[] wide = narrow ? null : new int[4 * n];
+        for (int i = 0; i < n; i++) {
+            if (narrow) {
+                open[i] = (char) offsets[4 * i];
+                high[i] = (char) offsets[4 * i + 1];
+                low[i] = (char) offsets[4 * i + 2];
+                close[i] = (short) offsets[4 * i + 3];
+            } else {
+                for (int k = 0; k < 4; k++) wide[4 * i + k] = (int) offsets[4 * i + k];
+            }
+        }
+
+        int volumeDecimals = 0;
+        for (int i = 0; i < n && volumeDecimals <= MAX_DECIMALS; i++) {
+            volumeDecimals = Math.max(volumeDecimals, decimals(s.getVolume(i), volumeDecimals));
+        }
+        double volumePow = volumeDecimals <= MAX_DECIMALS ? POW10[volumeDecimals] : 0;
+        int[] volume = volumePow > 0 ? new int[n] : null;
+        for (int i = 0; i < n && volume != null; i++) {
+            double scaled = Math.rint(s.getVolume(i) * volumePow);
+            if (Math.abs(scaled) > Integer.MAX_VALUE) volume = null;
+            else volume[i] = (int) scaled;
+        }
+        double[] exactVolume = null;
+        if (volume == null) {
+            exactVolume = new double[n];
+            for (int i = 0; i < n; i++) exactVolume[i] = s.getVolume(i);
+        }
+
+        CompactCandles columns = new CompactCandles(base, step, present, rankBefore, pow, blockOpen,
+                open, high, low, close, wide, volume, volumePow, exactVolume, n);
+        // Every field must round-trip exactly, or the chart would disagree with an uncached load
+        for (int i = 0; i < n; i++) {
+            if (columns.open(i) != s.getOpen(i) || columns.high(i) != s.getHigh(i)
+                    || columns.low(i) != s.getLow(i) || columns.close(i) != s.getClose(i)
+                    || columns.volume(i) != s.getVolume(i)) {
+                return null;
+            }
+        }
+        return new CandleSeries(columns).sameContentAs(s);
+    }
+
+    // Smallest number of decimals, at least {@code from}, that represents v exactly; MAX_DECIMALS + 1 if none does
+    private static int decimals(double v, int from) {
+        for (int d = from; d <= MAX_DECIMALS; d++) {
+            double scaled = v * POW10[d];
+            if (Math.abs(scaled) < 0x1p52 && Math.rint(scaled) / POW10[d] == v) return d;
+        }
+        return MAX_DECIMALS + 1;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public long timestamp(int i) {
+        int row = offset + i;
+        return base + (present == null ? row : slot(row)) * step;
+    }
+
+    @Override
+    public double open(int i) {
+        return scaledOpen(offset + i) / pow;
+    }
+
+    @Override
+    public double high(int i) {
+        int row = offset + i;
+        return (scaledOpen(row) + (wide == null ? high[row] : wide[4 * row + 1])) / pow;
+    }
+
+    @Override
+    public double low(int i) {
+        int row = offset + i;
+        return (scaledOpen(row) - (wide == null ? low[row] : wide[4 * row + 2])) / pow;
+    }
+
+    @Override
+    public double close(int i) {
+        int row = offset + i;
+        return (scaledOpen(row) + (wide == null ? close[row] : wide[4 * row + 3])) / pow;
+    }
+
+    @Override
+    public double volume(int i) {
+        return volume != null ? volume[offset + i] / volumePow : exactVolume[offset + i];
+    }
+
+    @Override
+    public CandleColumns slice(int from, int to) {
+        return new CompactCandles(this, offset + from, to - from);
+    }
+
+    // Slices share the arrays, so each reports all of them
+    @Override
+    public long estimatedBytes() {
+        long rows = volume != null ? volume.length : exactVolume.length;
+        long bytes = rows * ((wide == null ? 8L : 16L) + (volume != null ? 4L : 8L))
+                + 5 * 16 + blockOpen.length * 8L + 16 + 96;
+        if (present != null) bytes += present.length * 12L + 32;
+        return bytes;
+    }
+
+    // Linear in the scaled integers, so no price is decoded; equal to the generic mapping up to rounding
+    @Override
+    public void mapPrices(int from, int to, double base, double min, double scale,
+                          double[] openY, double[] highY, double[] lowY, double[] closeY, boolean[] up) {
+        double unit = scale / pow;
+        double zero = base + min * scale;
+        for (int i = from, k = 0; i < to; i++, k++) {
+            int row = offset + i;
+            double o = zero - scaledOpen(row) * unit;
+            long c;
+            if (wide == null) {
+                highY[k] = o - high[row] * unit;
+                lowY[k] = o + low[row] * unit;
+                c = close[row];
+            } else {
+                highY[k] = o - wide[4 * row + 1] * unit;
+                lowY[k] = o + wide[4 * row + 2] * unit;
+                c = wide[4 * row + 3];
+            }
+            openY[k] = o;
+            closeY[k] = o - c * unit;
+            up[k] = c >= 0;
+        }
+    }
+
+    private long scaledOpen(int row) {
+        return blockOpen[row >> BLOCK_SHIFT] + (wide == null ? open[row] : wide[4 * row]);
+    }
+
+    // Slot of the given row: the position of its set bit in the presence bitmap
+    private long slot(int row) {
+        int lo = 0, hi = rankBefore.length - 1;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (rankBefore[mid] <= row) lo = mid;
+            else hi = mid - 1;
+        }
+        long word = present[lo];
+        for (int k = row - rankBefore[lo]; k > 0; k--) word &= word - 1;
+        return ((long) lo << 6) + Long.numberOfTrailingZeros(word);
+    }
+}
@@ -1,19 +1,52 @@
 package com.trading.chartapp.model;
 
+import java.util.AbstractList;
 import java.util.List;
 
+// Compatibility view over an IndicatorSeries; the lists are read-only and unboxed on access
 public class Indicator {
-    private String name;
-    private List<Double> values;
-    private List<Long> timestamps;
+    private final IndicatorSeries series;
 
     public Indicator(String name, List<Double> values, List<Long> timestamps) {
-        this.name = name;
-        this.values = values;
-        this.timestamps = timestamps;
+        int n = Math.min(values.size(), timestamps.size());
+        this.series = new IndicatorSeries(name, n);
+        for (int i = 0; i < n; i++) {
+            series.add(timestamps.get(i), values.get(i));
+        }
     }
 
-    public String getName() { return name; }
-    public List<Double> getValues() { return values; }
-    public List<Long> getTimestamps() { return timestamps; }
-} 
\ No newline at end of file
+    public Indicator(IndicatorSeries series) {
+        this.series = series;
+    }
+
+    public String getName() { return series.getName(); }
+    public IndicatorSeries getSeries() { return series; }
+
+    public List<Double> getValues() {
+        return new AbstractList<Double>() {
+            @Override
+            public Double get(int index) {
+                return series.getValue(index);
+            }
+
+            @Override
+            public int size() {
+                return series.size();
+            }
+        };
+    }
+
+    public List<Long> getTimestamps() {
+        return new AbstractList<Long>() {
+            @Override
+            public Long get(int index) {
+                return series.getTimestamp(index);
+            }
+
+            @Override
+            public int size() {
+                return series.size();
+            }
+        };
+    }
+}
@@ -0,0 +1,73 @@
+package com.trading.chartapp.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pivots indicator rows into value columns aligned with a candle series.
+ *
+ * All resulting series share the candles' timestamp column, so value i of every indicator belongs
+ * to candle i. The rows of each indicator must be fed in timestamp order, but indicators may
+ * follow one another or interleave; rows without a matching candle are dropped and candles
+ * without a row hold NaN.
+ */
+public class IndicatorColumns {
+    private final long[] timestamps;
+    private final int size;
+    private final Map<String, Column> columns = new LinkedHashMap<>();
+    // Columns of the constructor's names, in iteration order, for index-based writes
+    private final List<Column> indexed = new ArrayList<>();
+
+    // Values of one indicator and the candle its last row matched
+    private static final class Column {
+        final double[] values;
+        int cursor = 0;
+
+        Column(int size) {
+            values = new double[Math.max(1, size)];
+            Arrays.fill(values, Double.NaN);
+        }
+    }
+
+    public IndicatorColumns(CandleSeries candles, Collection<String> names) {
+        this.timestamps = candles.timestampColumn();
+        this.size = candles.size();
+        if (names != null) {
+            for (String name : names) indexed.add(column(name));
+        }
+    }
+
+    public boolean set(String name, long timestamp, double value) {
+        return set(column(name), timestamp, value);
+    }
+
+    // Same as set(String, ...) with the position of the name in the constructor's collection
+    public boolean set(int column, long timestamp, double value) {
+        return set(indexed.get(column), timestamp, value);
+    }
+
+    private boolean set(Column column, long timestamp, double value) {
+        int cursor = column.cursor;
+        while (cursor < size && timestamps[cursor] < timestamp) cursor++;
+        column.cursor = cursor;
+        if (cursor == size || timestamps[cursor] != timestamp) return false;
+        column.values[cursor] = value;
+        return true;
+    }
+
+    public Map<String, IndicatorSeries> build() {
+        Map<String, IndicatorSeries> result = new LinkedHashMap<>();
+        for (Map.Entry<String, Column> entry : columns.entrySet()) {
+            result.put(entry.getKey(), new IndicatorSeries(entry.getKey(), timestamps, entry.getValue().values, size));
+        }
+        return result;
+    }
+
+    private Column column(String name) {
+        return columns.computeIfAbsent(name, k -> new Column(size));
+    }
+}
@@ -0,0 +1,117 @@
+package com.trading.chartapp.model;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Columnar indicator storage backed by a timestamp column and a value column.
+ */
+public class IndicatorSeries implements TimeSeries<IndicatorSeries> {
+    private static final int DEFAULT_CAPACITY = 256;
+
+    private final String name;
+    private long[] timestamps;
+    private double[] values;
+    private int size;
+    // Set while the columns may be referenced elsewhere; they are copied before the first write
+    private boolean shared;
+
+    public IndicatorSeries(String name) {
+        this(name, DEFAULT_CAPACITY);
+    }
+
+    public IndicatorSeries(String name, int capacity) {
+        int cap = Math.max(1, capacity);
+        this.name = name;
+        this.timestamps = new long[cap];
+        this.values = new double[cap];
+    }
+
+    // Wraps existing columns without copying; they may be shared with other series
+    IndicatorSeries(String name, long[] timestamps, double[] values, int size) {
+        this.name = name;
+        this.timestamps = timestamps;
+        this.values = values;
+        this.size = size;
+        this.shared = true;
+    }
+
+    // Values laid out row for row over the candles, sharing their timestamp column and the given array
+    public static IndicatorSeries alignedTo(CandleSeries candles, String name, double[] values) {
+        return new IndicatorSeries(name, candles.timestampColumn(), values, candles.size());
+    }
+
+    public void add(long timestamp, double value) {
+        if (shared) unshare(size + 1);
+        if (size == timestamps.length) {
+            int newCapacity = size + (size >> 1) + 1;
+            timestamps = Arrays.copyOf(timestamps, newCapacity);
+            values = Arrays.copyOf(values, newCapacity);
+        }
+        timestamps[size] = timestamp;
+        values[size] = value;
+        size++;
+    }
+
+    public String getName() { return name; }
+    public int size() { return size; }
+    public boolean isEmpty() { return size == 0; }
+
+    public long getTimestamp(int i) { return timestamps[Objects.checkIndex(i, size)]; }
+    public double getValue(int i) { return values[Objects.checkIndex(i, size)]; }
+
+    public void set(int i, double value) {
+        Objects.checkIndex(i, size);
+        if (shared) unshare(size);
+        values[i] = value;
+    }
+
+    private void unshare(int minCapacity) {
+        int capacity = Math.max(minCapacity, size);
+        timestamps = Arrays.copyOf(timestamps, capacity);
+        values = Arrays.copyOf(values, capacity);
+        shared = false;
+    }
+
+    @Override
+    public IndicatorSeries slice(int from, int to) {
+        Objects.checkFromToIndex(from, to, size);
+        IndicatorSeries slice = new IndicatorSeries(name,
+                Arrays.copyOfRange(timestamps, from, to),
+                Arrays.copyOfRange(values, from, to),
+                to - from);
+        slice.shared = false;
+        return slice;
+    }
+
+    @Override
+    public IndicatorSeries merge(IndicatorSeries other) {
+        IndicatorSeries merged = new IndicatorSeries(name, size + other.size);
+        int i = 0, j = 0;
+        while (i < size || j < other.size) {
+            if (j == other.size || (i < size && timestamps[i] < other.timestamps[j])) {
+                merged.add(timestamps[i], values[i]);
+                i++;
+            } else {
+                if (i < size && timestamps[i] == other.timestamps[j]) i++;
+                merged.add(other.timestamps[j], other.values[j]);
+                j++;
+            }
+        }
+        merged.trimToSize();
+        return merged;
+    }
+
+    @Override
+    public long estimatedBytes() {
+        return timestamps.length * 16L + 2 * 16 + 40;
+    }
+
+    public void trimToSize() {
+        if (size < timestamps.length) {
+            timestamps = Arrays.copyOf(timestamps, Math.max(1, size));
+            values = Arrays.copyOf(values, Math.max(1, size));
+            shared = false;
+        }
+    }
+}
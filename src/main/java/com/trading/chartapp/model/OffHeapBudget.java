@@ -0,0 +1,62 @@
+package com.trading.chartapp.model;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Process-wide limit on native memory held by {@link OffHeapCandles}, set with
+ * {@code chartapp.offheap.maxBytes}. An allocation that does not fit is refused and the
+ * caller keeps its rows on the heap.
+ *
+ * Released blocks are given back here at once, but their direct buffers are only freed when
+ * they are garbage collected, so real native use can run ahead of this count while windows are
+ * replaced. Run with {@code -XX:MaxDirectMemorySize} set to about twice the budget: the JVM then
+ * collects released buffers before it lets direct memory grow past that limit.
+ */
+public final class OffHeapBudget {
+    private static final long DEFAULT_MAX_BYTES = 1024L * 1024 * 1024;
+    private static final OffHeapBudget INSTANCE =
+            new OffHeapBudget(Long.getLong("chartapp.offheap.maxBytes", DEFAULT_MAX_BYTES));
+
+    private final long maxBytes;
+    private final AtomicLong usedBytes = new AtomicLong();
+    private final AtomicLong peakBytes = new AtomicLong();
+    private final AtomicLong blocks = new AtomicLong();
+    private final AtomicLong refused = new AtomicLong();
+
+    private OffHeapBudget(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    public static OffHeapBudget getInstance() {
+        return INSTANCE;
+    }
+
+    boolean tryReserve(long bytes) {
+        long used;
+        do {
+            used = usedBytes.get();
+            if (used + bytes > maxBytes) {
+                refused.incrementAndGet();
+                return false;
+            }
+        } while (!usedBytes.compareAndSet(used, used + bytes));
+        peakBytes.accumulateAndGet(used + bytes, Math::max);
+        blocks.incrementAndGet();
+        return true;
+    }
+
+    void release(long bytes) {
+        usedBytes.addAndGet(-bytes);
+        blocks.decrementAndGet();
+    }
+
+    public long getUsedBytes() { return usedBytes.get(); }
+    public long getMaxBytes() { return maxBytes; }
+
+    @Override
+    public String toString() {
+        return String.format("Off-heap candles: %d blocks, %.1f/%.1f MB, peak %.1f MB, %d allocations refused",
+                blocks.get(), usedBytes.get() / (1024.0 * 1024.0), maxBytes / (1024.0 * 1024.0),
+                peakBytes.get() / (1024.0 * 1024.0), refused.get());
+    }
+}
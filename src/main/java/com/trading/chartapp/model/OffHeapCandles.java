@@ -0,0 +1,178 @@
+package com.trading.chartapp.model;
+
+import java.lang.ref.Cleaner;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Candle prices and volumes in one direct buffer outside the Java heap, charged to
+ * {@link OffHeapBudget}. Column c of row i is the 8-byte value at (c * capacity + i) * 8, so each
+ * field is contiguous like the arrays of a heap {@link CandleSeries}. Timestamps stay in the
+ * heap column the source series already had, which aligned indicator columns share.
+ *
+ * Each holder of a block, the series from {@link #copyOf} and every series from {@link #share},
+ * calls {@link #release()} when it no longer shows the rows. When the last holder releases it,
+ * the block's bytes go back to the budget and reads throw {@link IllegalStateException}. The
+ * native memory itself belongs to the direct buffer and is only freed when the buffer is
+ * garbage collected; see {@link OffHeapBudget}. Slices are views of their holder's reference and
+ * do not hold one of their own. A block that becomes unreachable without being released is
+ * returned to the budget by a cleaner, e.g. a prefetch result that was never shown.
+ */
+public final class OffHeapCandles implements CandleColumns {
+    private static final Cleaner CLEANER = Cleaner.create();
+    private static final int OPEN = 0, HIGH = 1, LOW = 2, CLOSE = 3, VOLUME = 4, COLUMNS = 5;
+
+    // One allocation, shared by its holders and all slices of them
+    private static final class Block {
+        volatile ByteBuffer buffer;
+        final long[] timestamps;
+        final int capacity;
+        final Cleaner.Cleanable cleanable;
+        final AtomicInteger holders = new AtomicInteger(1);
+
+        Block(ByteBuffer buffer, long[] timestamps, int capacity, long bytes) {
+            this.buffer = buffer;
+            this.timestamps = timestamps;
+            this.capacity = capacity;
+            // The action must not reference the block, or it would never become unreachable
+            OffHeapBudget budget = OffHeapBudget.getInstance();
+            this.cleanable = CLEANER.register(this, () -> budget.release(bytes));
+        }
+
+        // Adds a holder unless the last one has already freed the block
+        boolean retain() {
+            int n;
+            do {
+                n = holders.get();
+                if (n == 0) return false;
+            } while (!holders.compareAndSet(n, n + 1));
+            return true;
+        }
+    }
+
+    private final Block block;
+    private final int offset;
+    private final int size;
+    // Null for a slice, which releases nothing
+    private final AtomicBoolean released;
+
+    private OffHeapCandles(Block block, int offset, int size, boolean holder) {
+        this.block = block;
+        this.offset = offset;
+        this.size = size;
+        this.released = holder ? new AtomicBoolean() : null;
+    }
+
+    /**
+     * Copies the prices and volumes of {@code source} into native memory and returns a series
+     * reading through them, or null if the budget has no room. The source's timestamp column is
+     * shared rather than copied, so indicator columns aligned to either keep working.
+     */
+    public static CandleSeries copyOf(CandleSeries source) {
+        int n = source.size();
+        long bytes = (long) COLUMNS * Math.max(1, n) * Double.BYTES;
+        if (bytes > Integer.MAX_VALUE || !OffHeapBudget.getInstance().tryReserve(bytes)) return null;
+        ByteBuffer buffer = ByteBuffer.allocateDirect((int) bytes).order(ByteOrder.nativeOrder());
+        int cap = Math.max(1, n);
+        for (int i = 0; i < n; i++) {
+            buffer.putDouble(at(cap, OPEN, i), source.getOpen(i));
+            buffer.putDouble(at(cap, HIGH, i), source.getHigh(i));
+            buffer.putDouble(at(cap, LOW, i), source.getLow(i));
+            buffer.putDouble(at(cap, CLOSE, i), source.getClose(i));
+            buffer.putDouble(at(cap, VOLUME, i), source.getVolume(i));
+        }
+        long[] timestamps = source.timestampColumn();
+        return new CandleSeries(new OffHeapCandles(new Block(buffer, timestamps, cap, bytes), 0, n, true), timestamps)
+                .sameContentAs(source);
+    }
+
+    /**
+     * A series over the same rows as {@code series} that holds its own reference to them, so
+     * another panel can show them and release independently; null if {@code series} is on the
+     * heap.
+     */
+    public static CandleSeries share(CandleSeries series) {
+        OffHeapCandles source = of(series);
+        if (source == null) return null;
+        if (!source.block.retain()) throw new IllegalStateException("Off-heap candles were released");
+        return new CandleSeries(new OffHeapCandles(source.block, source.offset, source.size, true), series.timestampColumn())
+                .sameContentAs(series);
+    }
+
+    // The off-heap rows behind a series, or null if it is on the heap
+    public static OffHeapCandles of(CandleSeries series) {
+        return series.columns() instanceof OffHeapCandles offHeap ? offHeap : null;
+    }
+
+    // Drops this holder's reference and frees the block if it was the last; later calls do nothing
+    public void release() {
+        if (released == null || !released.compareAndSet(false, true)) return;
+        if (block.holders.decrementAndGet() == 0) {
+            block.buffer = null;
+            block.cleanable.clean();
+        }
+    }
+
+    public boolean isReleased() {
+        return (released != null && released.get()) || block.buffer == null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public long timestamp(int i) {
+        if (block.buffer == null) throw new IllegalStateException("Off-heap candles were released");
+        return block.timestamps[offset + i];
+    }
+
+    @Override
+    public double open(int i) {
+        return buffer().getDouble(at(block.capacity, OPEN, offset + i));
+    }
+
+    @Override
+    public double high(int i) {
+        return buffer().getDouble(at(block.capacity, HIGH, offset + i));
+    }
+
+    @Override
+    public double low(int i) {
+        return buffer().getDouble(at(block.capacity, LOW, offset + i));
+    }
+
+    @Override
+    public double close(int i) {
+        return buffer().getDouble(at(block.capacity, CLOSE, offset + i));
+    }
+
+    @Override
+    public double volume(int i) {
+        return buffer().getDouble(at(block.capacity, VOLUME, offset + i));
+    }
+
+    @Override
+    public CandleColumns slice(int from, int to) {
+        return new OffHeapCandles(block, offset + from, to - from, false);
+    }
+
+    // Only the timestamps are on the heap; slices share them, so each reports all of them
+    @Override
+    public long estimatedBytes() {
+        return block.timestamps.length * 8L + 32;
+    }
+
+    private ByteBuffer buffer() {
+        ByteBuffer buffer = block.buffer;
+        if (buffer == null) throw new IllegalStateException("Off-heap candles were released");
+        return buffer;
+    }
+
+    private static int at(int capacity, int column, int row) {
+        return (column * capacity + row) * Double.BYTES;
+    }
+}
@@ -0,0 +1,110 @@
+package com.trading.chartapp.model;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * Iterative segment tree answering min and max over any index range in O(log n).
+ * Minimum and maximum may come from different columns (lows and highs for candles).
+ * NaN values are ignored; a range with no finite value yields +Inf/-Inf.
+ * Leaves are laid out over a capacity larger than the size so rows can be appended;
+ * unused leaves hold the neutral values and never affect a query.
+ */
+public class RangeMinMax {
+    private int n;
+    private int capacity;
+    private double[] minTree;
+    private double[] maxTree;
+
+    public RangeMinMax(int n, IntToDoubleFunction minSource, IntToDoubleFunction maxSource) {
+        this.n = n;
+        allocate(Math.max(1, n));
+        for (int i = 0; i < n; i++) {
+            minTree[capacity + i] = minLeaf(minSource.applyAsDouble(i));
+            maxTree[capacity + i] = maxLeaf(maxSource.applyAsDouble(i));
+        }
+        rebuildInner();
+    }
+
+    private void allocate(int cap) {
+        capacity = cap;
+        minTree = new double[2 * cap];
+        maxTree = new double[2 * cap];
+        Arrays.fill(minTree, Double.POSITIVE_INFINITY);
+        Arrays.fill(maxTree, Double.NEGATIVE_INFINITY);
+    }
+
+    private void rebuildInner() {
+        for (int i = capacity - 1; i > 0; i--) {
+            minTree[i] = Math.min(minTree[2 * i], minTree[2 * i + 1]);
+            maxTree[i] = Math.max(maxTree[2 * i], maxTree[2 * i + 1]);
+        }
+    }
+
+    public static RangeMinMax ofCandles(CandleSeries candles) {
+        return new RangeMinMax(candles.size(), candles::getLow, candles::getHigh);
+    }
+
+    public static RangeMinMax ofValues(IndicatorSeries series) {
+        return new RangeMinMax(series.size(), series::getValue, series::getValue);
+    }
+
+    public int size() {
+        return n;
+    }
+
+    // Minimum over [from, to)
+    public double min(int from, int to) {
+        double result = Double.POSITIVE_INFINITY;
+        for (int l = Math.max(0, from) + capacity, r = Math.min(n, to) + capacity; l < r; l >>= 1, r >>= 1) {
+            if ((l & 1) == 1) result = Math.min(result, minTree[l++]);
+            if ((r & 1) == 1) result = Math.min(result, minTree[--r]);
+        }
+        return result;
+    }
+
+    // Maximum over [from, to)
+    public double max(int from, int to) {
+        double result = Double.NEGATIVE_INFINITY;
+        for (int l = Math.max(0, from) + capacity, r = Math.min(n, to) + capacity; l < r; l >>= 1, r >>= 1) {
+            if ((l & 1) == 1) result = Math.max(result, maxTree[l++]);
+            if ((r & 1) == 1) result = Math.max(result, maxTree[--r]);
+        }
+        return result;
+    }
+
+    // Point update in O(log n)
+    public void set(int i, double minValue, double maxValue) {
+        int p = Objects.checkIndex(i, n) + capacity;
+        minTree[p] = minLeaf(minValue);
+        maxTree[p] = maxLeaf(maxValue);
+        for (p >>= 1; p > 0; p >>= 1) {
+            minTree[p] = Math.min(minTree[2 * p], minTree[2 * p + 1]);
+            maxTree[p] = Math.max(maxTree[2 * p], maxTree[2 * p + 1]);
+        }
+    }
+
+    // Adds a row at the end; the leaf array doubles when full, so appends are amortized O(log n)
+    public void append(double minValue, double maxValue) {
+        if (n == capacity) {
+            double[] oldMin = minTree;
+            double[] oldMax = maxTree;
+            int oldCapacity = capacity;
+            allocate(capacity * 2);
+            System.arraycopy(oldMin, oldCapacity, minTree, capacity, n);
+            System.arraycopy(oldMax, oldCapacity, maxTree, capacity, n);
+            rebuildInner();
+        }
+        n++;
+        set(n - 1, minValue, maxValue);
+    }
+
+    private static double minLeaf(double v) {
+        return Double.isNaN(v) ? Double.POSITIVE_INFINITY : v;
+    }
+
+    private static double maxLeaf(double v) {
+        return Double.isNaN(v) ? Double.NEGATIVE_INFINITY : v;
+    }
+}
@@ -0,0 +1,44 @@
+package com.trading.chartapp.model;
+
+/**
+ * Aggregates candles into a coarser timeframe in one pass over the columns. Bars are
+ * aligned to epoch multiples of the target interval, the same way the exchange aligns them.
+ */
+public final class Resampler {
+
+    private Resampler() {
+    }
+
+    public static CandleSeries resample(CandleSeries source, Timeframe target) {
+        int n = source.size();
+        if (n == 0) return new CandleSeries(1);
+        long span = source.getTimestamp(n - 1) - source.getTimestamp(0);
+        int estimate = (int) Math.min(n, span / target.getMillis() + 2);
+        CandleSeries result = new CandleSeries(estimate);
+        long bar = target.barOpenTime(source.getTimestamp(0));
+        double open = source.getOpen(0);
+        double high = source.getHigh(0);
+        double low = source.getLow(0);
+        double close = source.getClose(0);
+        double volume = source.getVolume(0);
+        for (int i = 1; i < n; i++) {
+            long next = target.barOpenTime(source.getTimestamp(i));
+            if (next != bar) {
+                result.add(bar, open, high, low, close, volume);
+                bar = next;
+                open = source.getOpen(i);
+                high = source.getHigh(i);
+                low = source.getLow(i);
+                volume = 0;
+            } else {
+                high = Math.max(high, source.getHigh(i));
+                low = Math.min(low, source.getLow(i));
+            }
+            close = source.getClose(i);
+            volume += source.getVolume(i);
+        }
+        result.add(bar, open, high, low, close, volume);
+        result.trimToSize();
+        return result;
+    }
+}
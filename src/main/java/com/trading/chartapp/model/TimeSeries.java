@@ -0,0 +1,40 @@
+package com.trading.chartapp.model;
+
+/**
+ * Common operations for timestamp-ordered columnar series.
+ */
+public interface TimeSeries<S extends TimeSeries<S>> {
+    int size();
+
+    long getTimestamp(int i);
+
+    // Rows in [from, to); never shares writable storage with this series
+    S slice(int from, int to);
+
+    // Union of both series ordered by timestamp; rows of {@code other} win on equal timestamps
+    S merge(S other);
+
+    long estimatedBytes();
+
+    // Index of the first row with timestamp >= ts, or size() if there is none
+    default int lowerBound(long ts) {
+        int lo = 0, hi = size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (getTimestamp(mid) < ts) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    // Index of the first row with timestamp > ts, or size() if there is none
+    default int upperBound(long ts) {
+        int lo = 0, hi = size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (getTimestamp(mid) <= ts) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+}
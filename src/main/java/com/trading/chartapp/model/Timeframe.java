@@ -1,23 +1,61 @@
 package com.trading.chartapp.model;
 
 public enum Timeframe {
-    ONE_MIN("1m"),
-    FIVE_MIN("5m"),
-    FIFTEEN_MIN("15m"),
-    ONE_HOUR("1h"),
-    FOUR_HOUR("4h"),
-    ONE_DAY("1d");
+    ONE_MIN("1m", 60_000L, true),
+    FIVE_MIN("5m", 5 * 60_000L, true),
+    FIFTEEN_MIN("15m", 15 * 60_000L, true),
+    THIRTY_MIN("30m", 30 * 60_000L, false),
+    ONE_HOUR("1h", 60 * 60_000L, true),
+    TWO_HOUR("2h", 2 * 60 * 60_000L, false),
+    FOUR_HOUR("4h", 4 * 60 * 60_000L, true),
+    ONE_DAY("1d", 24 * 60 * 60_000L, true);
 
     private final String label;
+    private final long millis;
+    // Whether the database export has rows for this interval; the others only exist by resampling
+    private final boolean stored;
 
-    Timeframe(String label) {
+    Timeframe(String label, long millis, boolean stored) {
         this.label = label;
+        this.millis = millis;
+        this.stored = stored;
     }
 
     public String getLabel() {
         return label;
     }
 
+    public long getMillis() {
+        return millis;
+    }
+
+    public boolean isStored() {
+        return stored;
+    }
+
+    // The coarsest finer timeframe whose bars tile this one, or null for the base timeframe
+    public Timeframe getResampleSource() {
+        Timeframe source = null;
+        for (Timeframe tf : values()) {
+            if (tf.millis < millis && millis % tf.millis == 0 && (source == null || tf.millis > source.millis)) {
+                source = tf;
+            }
+        }
+        return source;
+    }
+
+    // Open time of the bar containing the given timestamp
+    public long barOpenTime(long timestamp) {
+        return timestamp - Math.floorMod(timestamp, millis);
+    }
+
+    public static Timeframe fromLabel(String label) {
+        for (Timeframe tf : values()) {
+            if (tf.label.equals(label)) return tf;
+        }
+        throw new IllegalArgumentException("Unknown timeframe: " + label);
+    }
+
     @Override
     public String toString() {
         return label;
@@ -0,0 +1,72 @@
+package com.trading.chartapp.ui;
+
+import com.trading.chartapp.model.CandleSeries;
+
+/**
+ * Pixel geometry of the candle pane, computed apart from any {@code GraphicsContext} so the
+ * mapping can be measured and checked headless. Slot k of the output is slot firstSlot + k of
+ * the window: a candle, or a decimated pixel column. Buffers are reused between frames.
+ */
+public final class CandleGeometry {
+    // Left edge of the slot
+    public double[] x = new double[0];
+    public double[] openY = new double[0];
+    public double[] closeY = new double[0];
+    public double[] highY = new double[0];
+    public double[] lowY = new double[0];
+    public boolean[] up = new boolean[0];
+    public double slotWidth;
+    public int count;
+
+    void ensureCapacity(int n) {
+        if (x.length < n) {
+            x = new double[n];
+            openY = new double[n];
+            closeY = new double[n];
+            highY = new double[n];
+            lowY = new double[n];
+            up = new boolean[n];
+        }
+    }
+
+    // One slot per candle of rows [from, to), starting at slot firstSlot
+    public int layout(CandleSeries s, int from, int to, int firstSlot,
+                      double left, double width, double top, double height, double min, double max) {
+        int n = to - from;
+        count = 0;
+        if (n <= 0) return 0;
+        ensureCapacity(n);
+        slotWidth = width / n;
+        double scale = height / (max - min);
+        double base = top + height;
+        int first = from + Math.max(0, firstSlot);
+        if (first >= to) return 0;
+        s.mapPrices(first, to, base, min, scale, openY, highY, lowY, closeY, up);
+        count = to - first;
+        for (int k = 0; k < count; k++) {
+            x[k] = left + (first - from + k) * slotWidth;
+        }
+        return count;
+    }
+
+    // One slot per decimated column; buckets[0] is column firstColumn
+    public int layout(Decimator.CandleBuckets buckets, int columns, int firstColumn,
+                      double left, double width, double top, double height, double min, double max) {
+        count = 0;
+        if (columns <= 0) return 0;
+        ensureCapacity(buckets.count);
+        slotWidth = width / columns;
+        double scale = height / (max - min);
+        double base = top + height;
+        for (int k = 0; k < buckets.count; k++) {
+            x[k] = left + (firstColumn + k) * slotWidth;
+            openY[k] = base - (buckets.open[k] - min) * scale;
+            closeY[k] = base - (buckets.close[k] - min) * scale;
+            highY[k] = base - (buckets.high[k] - min) * scale;
+            lowY[k] = base - (buckets.low[k] - min) * scale;
+            up[k] = buckets.close[k] >= buckets.open[k];
+        }
+        count = buckets.count;
+        return count;
+    }
+}
@@ -1,7 +1,8 @@
 package com.trading.chartapp.ui;
 
-import com.trading.chartapp.model.Candlestick;
-import com.trading.chartapp.model.Indicator;
+import com.trading.chartapp.model.CandleSeries;
+import com.trading.chartapp.model.ChartData;
+import com.trading.chartapp.model.IndicatorSeries;
 import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.paint.Color;
@@ -10,12 +11,13 @@ import java.time.Instant;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
-import java.util.List;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
 public class ChartCanvas extends Canvas {
-    private List<Candlestick> candlesticks;
-    private Map<String, Indicator> indicators = new HashMap<>();
+    private CandleSeries candles;
+    private Map<String, IndicatorSeries> indicators = new HashMap<>();
     private Integer hoverIndex = null;
     private double hoverX = 0;
     private double hoverY = 0;
@@ -24,28 +26,53 @@ public class ChartCanvas extends Canvas {
     private boolean draggingSeparator = false;
     private static final double SEPARATOR_THICKNESS = 6;
     private static final double CHART_GAP = 40;
+    private final Decimator.CandleBuckets candleBuckets = new Decimator.CandleBuckets();
+    private final Decimator.LineBuckets lineBuckets = new Decimator.LineBuckets();
+    private final CandleGeometry geometry = new CandleGeometry();
+    private final FrameTimer frameTimer = FrameTimer.getInstance();
+    // Crosshair and tooltip live on their own canvas stacked above this one, so hovering
+    // never repaints the candles, indicators or axes
+    private final Canvas overlay = new Canvas();
+    private final ChartScale scale = new ChartScale();
+    // Visible index window [viewFrom, viewTo); pan and zoom only move this window over the resident series
+    private int viewFrom = 0;
+    private int viewTo = 0;
+    private boolean fullView = true;
+    private boolean panning = false;
+    private double panStartX = 0;
+    private int panStartFrom = 0;
+    private static final int MIN_VISIBLE_CANDLES = 10;
+    private static final double ZOOM_STEP = 1.25;
+    // Price pane geometry from the last full redraw, reused by the overlay
+    private double priceTop = 0;
+    private double priceBottom = 0;
+    private double oscTop = 0;
+    private double oscBottom = 0;
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm").withZone(ZoneId.systemDefault());
 
     {
         setOnMouseMoved(e -> {
-            if (candlesticks == null || candlesticks.isEmpty()) {
+            if (candles == null || candles.isEmpty()) {
+                // Clears a crosshair and tooltip left over from the previous series
                 hoverIndex = null;
+                redrawOverlay();
                 return;
             }
             double w = getWidth();
             double chartW = w - LEFT_PAD - RIGHT_PAD;
-            int n = candlesticks.size();
+            int count = viewTo - viewFrom;
             double x = e.getX();
-            if (x < LEFT_PAD || x > w - RIGHT_PAD) {
+            if (count <= 0 || x < LEFT_PAD || x > w - RIGHT_PAD) {
                 hoverIndex = null;
-                redraw();
+                redrawOverlay();
                 return;
             }
-            int idx = (int) ((x - LEFT_PAD) / (chartW / n));
-            idx = Math.max(0, Math.min(n - 1, idx));
+            int idx = viewFrom + (int) ((x - LEFT_PAD) / (chartW / count));
+            idx = Math.max(viewFrom, Math.min(viewTo - 1, idx));
             hoverIndex = idx;
             hoverX = e.getX();
             hoverY = e.getY();
-            redraw();
+            redrawOverlay();
             double h = getHeight();
             double sepY = h - subchartHeight - BOTTOM_PAD + SEPARATOR_THICKNESS / 2;
             if (Math.abs(e.getY() - sepY) < SEPARATOR_THICKNESS) {
@@ -56,13 +83,17 @@ public class ChartCanvas extends Canvas {
         });
         setOnMouseExited(e -> {
             hoverIndex = null;
-            redraw();
+            redrawOverlay();
         });
         setOnMousePressed(e -> {
             double h = getHeight();
             double sepY = h - subchartHeight - BOTTOM_PAD + SEPARATOR_THICKNESS / 2;
             if (Math.abs(e.getY() - sepY) < SEPARATOR_THICKNESS) {
                 draggingSeparator = true;
+            } else if (candles != null && !candles.isEmpty()) {
+                panning = true;
+                panStartX = e.getX();
+                panStartFrom = viewFrom;
             }
         });
         setOnMouseDragged(e -> {
@@ -71,9 +102,36 @@ public class ChartCanvas extends Canvas {
                 double newSubchartHeight = h - BOTTOM_PAD - e.getY();
                 subchartHeight = Math.max(60, Math.min(newSubchartHeight, h - 120));
                 redraw();
+            } else if (panning) {
+                int count = viewTo - viewFrom;
+                double chartW = getWidth() - LEFT_PAD - RIGHT_PAD;
+                if (count <= 0 || chartW <= 0) return;
+                int shift = (int) Math.round((panStartX - e.getX()) / (chartW / count));
+                setViewport(panStartFrom + shift, panStartFrom + shift + count);
+            }
+        });
+        setOnMouseReleased(e -> {
+            draggingSeparator = false;
+            panning = false;
+        });
+        setOnScroll(e -> {
+            if (candles == null || candles.isEmpty() || e.getDeltaY() == 0) return;
+            double chartW = getWidth() - LEFT_PAD - RIGHT_PAD;
+            int count = viewTo - viewFrom;
+            if (chartW <= 0 || count <= 0) return;
+            // Zoom around the candle under the cursor
+            double frac = Math.max(0, Math.min(1, (e.getX() - LEFT_PAD) / chartW));
+            double anchor = viewFrom + frac * count;
+            int newCount = (int) Math.round(e.getDeltaY() > 0 ? count / ZOOM_STEP : count * ZOOM_STEP);
+            newCount = Math.max(Math.min(MIN_VISIBLE_CANDLES, candles.size()), Math.min(candles.size(), newCount));
+            int newFrom = (int) Math.round(anchor - frac * newCount);
+            setViewport(newFrom, newFrom + newCount);
+        });
+        setOnMouseClicked(e -> {
+            if (e.getClickCount() == 2 && candles != null) {
+                setViewport(0, candles.size());
             }
         });
-        setOnMouseReleased(e -> draggingSeparator = false);
     }
 
     private static final double LEFT_PAD = 60;
@@ -81,18 +139,31 @@ public class ChartCanvas extends Canvas {
     private static final double TOP_PAD = 20;
     private static final double BOTTOM_PAD = 40;
     private static final double SUBCHART_HEIGHT = 120;
-    private static final String[] OSCILLATORS = {"RSI", "MACD"};
+    private static final String[] OSCILLATORS = {"RSI", "MACD", "ATR"};
 
     public ChartCanvas() {
         super(0, 0);
         widthProperty().addListener((obs, oldVal, newVal) -> redraw());
         heightProperty().addListener((obs, oldVal, newVal) -> redraw());
+        bindOverlay();
     }
 
     public ChartCanvas(double width, double height) {
         super(width, height);
         widthProperty().addListener((obs, oldVal, newVal) -> redraw());
         heightProperty().addListener((obs, oldVal, newVal) -> redraw());
+        bindOverlay();
+    }
+
+    private void bindOverlay() {
+        overlay.widthProperty().bind(widthProperty());
+        overlay.heightProperty().bind(heightProperty());
+        overlay.setMouseTransparent(true);
+    }
+
+    // Must be stacked directly above this canvas (e.g. in the same StackPane)
+    public Canvas getOverlay() {
+        return overlay;
     }
 
     @Override
@@ -110,37 +181,237 @@ public class ChartCanvas extends Canvas {
         return getHeight();
     }
 
-    public void drawCandlesticks(List<Candlestick> data) {
-        this.candlesticks = data;
+    public void setChartData(ChartData data) {
+        CandleSeries previous = candles;
+        this.candles = data.getCandles();
+        this.indicators = new HashMap<>(data.getIndicators());
+        scale.setCandles(candles);
+        scale.setIndicators(indicators);
+        restoreViewport(previous);
         redraw();
     }
 
-    public void drawIndicators(Map<String, Indicator> indicators) {
-        this.indicators = indicators;
+    /**
+     * Shows the series and indicator objects of another canvas without copying them, with the
+     * same indicator toggles and visible window. Scale trees, viewport and draw buffers stay
+     * per canvas, so both can be zoomed and panned independently.
+     */
+    public void shareDataWith(ChartCanvas source) {
+        indicatorEnabled.clear();
+        indicatorEnabled.putAll(source.indicatorEnabled);
+        subchartHeight = source.subchartHeight;
+        candles = source.candles;
+        indicators = new HashMap<>(source.indicators);
+        scale.setCandles(candles);
+        scale.setIndicators(indicators);
+        viewFrom = source.viewFrom;
+        viewTo = source.viewTo;
+        fullView = source.fullView;
+        hoverIndex = null;
+        updateScale();
         redraw();
     }
 
-    public void addIndicator(Indicator indicator) {
+    public void drawCandlesticks(CandleSeries data) {
+        CandleSeries previous = candles;
+        this.candles = data;
+        scale.setCandles(candles);
+        restoreViewport(previous);
+        redraw();
+    }
+
+    // Keeps a zoomed-in time window across reloads when the new data still covers it
+    private void restoreViewport(CandleSeries previous) {
+        int n = candles == null ? 0 : candles.size();
+        if (!fullView && previous != null && viewTo > viewFrom && viewTo <= previous.size() && n > 0) {
+            int from = candles.lowerBound(previous.getTimestamp(viewFrom));
+            int to = candles.upperBound(previous.getTimestamp(viewTo - 1));
+            if (to - from >= Math.min(MIN_VISIBLE_CANDLES, n)) {
+                viewFrom = from;
+                viewTo = to;
+                updateScale();
+                return;
+            }
+        }
+        viewFrom = 0;
+        viewTo = n;
+        fullView = true;
+        updateScale();
+    }
+
+    // Moves the visible window, clamped to the loaded series; never touches the data source
+    public void setViewport(int from, int to) {
+        int n = candles == null ? 0 : candles.size();
+        int count = Math.max(0, Math.min(n, to - from));
+        int start = Math.max(0, Math.min(from, n - count));
+        if (start == viewFrom && start + count == viewTo) return;
+        viewFrom = start;
+        viewTo = start + count;
+        fullView = viewFrom == 0 && viewTo == n;
+        hoverIndex = null;
+        updateScale();
+        redraw();
+    }
+
+    // Shows the candles whose timestamps fall in [startTs, endTs]
+    public void setVisibleTimeRange(long startTs, long endTs) {
+        if (candles == null) return;
+        setViewport(candles.lowerBound(startTs), candles.upperBound(endTs));
+    }
+
+    public int getViewFrom() { return viewFrom; }
+    public int getViewTo() { return viewTo; }
+
+    public void drawIndicators(Map<String, IndicatorSeries> indicators) {
+        this.indicators = new HashMap<>(indicators);
+        scale.setIndicators(this.indicators);
+        updateScale();
+        redraw();
+    }
+
+    public void addIndicator(IndicatorSeries indicator) {
         indicators.put(indicator.getName(), indicator);
+        scale.putIndicator(indicator);
+        updateScale();
         redraw();
     }
 
     public void removeIndicator(String indicatorName) {
         indicators.remove(indicatorName);
+        scale.removeIndicator(indicatorName);
+        updateScale();
         redraw();
     }
 
-    public Map<String, Indicator> getIndicators() {
+    public CandleSeries getCandles() {
+        return candles;
+    }
+
+    /**
+     * Applies changes made to the loaded series in place: rows from firstChanged on were
+     * updated and rows past the previous size were appended. Appends while the view is at
+     * the right edge slide the view and redraw; an update to the newest visible bar that
+     * leaves the price range alone only repaints that bar's slot.
+     */
+    public void candlesUpdated(int firstChanged) {
+        if (candles == null) return;
+        int oldSize = scale.getCandleCount();
+        int n = candles.size();
+        scale.candlesUpdated(candles, firstChanged);
+        for (IndicatorSeries series : indicators.values()) {
+            scale.indicatorUpdated(series, firstChanged);
+        }
+        if (n > oldSize && viewTo == oldSize) {
+            int count = viewTo - viewFrom;
+            viewTo = n;
+            viewFrom = fullView ? 0 : Math.max(0, n - count);
+            updateScale();
+            redraw();
+            return;
+        }
+        if (firstChanged >= viewTo) return;
+        double oldMin = scale.getPriceMin();
+        double oldMax = scale.getPriceMax();
+        double oldOscMin = scale.getOscMin();
+        double oldOscMax = scale.getOscMax();
+        updateScale();
+        if (firstChanged == viewTo - 1 && scale.getPriceMin() == oldMin && scale.getPriceMax() == oldMax
+                && scale.getOscMin() == oldOscMin && scale.getOscMax() == oldOscMax) {
+            repaintLastSlot();
+        } else {
+            redraw();
+        }
+    }
+
+    // Repaints only the newest slot of both panes: its bar, grid and the lines leading into it
+    private void repaintLastSlot() {
+        long start = System.nanoTime();
+        double chartW = getWidth() - LEFT_PAD - RIGHT_PAD;
+        int n = viewTo - viewFrom;
+        if (n <= 0 || chartW <= 0) return;
+        int slots = Math.min(n, pixelColumns(chartW));
+        double slotW = chartW / slots;
+        int last = slots - 1;
+        double x = LEFT_PAD + last * slotW;
+        GraphicsContext gc = getGraphicsContext2D();
+        clipSlot(gc, x, slotW, priceTop, priceBottom);
+        drawAxes(gc, priceTop, priceBottom, false);
+        drawCandles(gc, priceTop, priceBottom, last);
+        drawAllIndicators(gc, priceTop, priceBottom, Math.max(0, last - 1));
+        gc.restore();
+        clipSlot(gc, x, slotW, oscTop, oscBottom);
+        drawAxes(gc, oscTop, oscBottom, true);
+        drawOscillators(gc, oscTop, oscBottom, Math.max(0, last - 1));
+        gc.restore();
+        redrawOverlay();
+        frameTimer.lap(FrameTimer.Phase.SLOT, start);
+    }
+
+    // Saves the context and clips to one cleared slot; the caller restores
+    private static void clipSlot(GraphicsContext gc, double x, double width, double top, double bottom) {
+        gc.save();
+        gc.beginPath();
+        gc.rect(x, top, width, bottom - top);
+        gc.closePath();
+        gc.clip();
+        gc.clearRect(x, top, width, bottom - top);
+    }
+
+    public ChartScale getScale() {
+        return scale;
+    }
+
+    private void updateScale() {
+        scale.update(viewFrom, viewTo, name -> isOscillator(name) && isIndicatorEnabled(name));
+    }
+
+    public Map<String, IndicatorSeries> getIndicators() {
         return indicators;
     }
 
     public void setIndicatorEnabled(String name, boolean enabled) {
         System.out.println("Toggling indicator: " + name + " -> " + enabled);
         indicatorEnabled.put(name, enabled);
+        updateScale();
         redraw();
     }
 
+    public Set<String> getDisabledIndicators() {
+        Set<String> disabled = new HashSet<>();
+        for (Map.Entry<String, Boolean> entry : indicatorEnabled.entrySet()) {
+            if (!entry.getValue()) disabled.add(entry.getKey());
+        }
+        return disabled;
+    }
+
+    // Sets the initial state for an indicator the user has not toggled yet
+    public void setIndicatorDefault(String name, boolean enabled) {
+        indicatorEnabled.putIfAbsent(name, enabled);
+    }
+
+    public void addIndicators(Map<String, IndicatorSeries> series) {
+        for (IndicatorSeries indicator : series.values()) {
+            indicators.put(indicator.getName(), indicator);
+            scale.putIndicator(indicator);
+        }
+        updateScale();
+        redraw();
+    }
+
+    private static boolean isOscillator(String name) {
+        String upper = name.toUpperCase();
+        for (String osc : OSCILLATORS) {
+            if (upper.contains(osc)) return true;
+        }
+        return false;
+    }
+
+    public boolean isIndicatorEnabled(String name) {
+        return indicatorEnabled.getOrDefault(name, true);
+    }
+
     public void redraw() {
+        long frameStart = System.nanoTime();
         GraphicsContext gc = getGraphicsContext2D();
         gc.clearRect(0, 0, getWidth(), getHeight());
         double w = getWidth();
@@ -148,8 +419,14 @@ public class ChartCanvas extends Canvas {
         double subchartTop = h - subchartHeight - BOTTOM_PAD;
         double gapTop = subchartTop - CHART_GAP / 2;
         double gapBottom = subchartTop + CHART_GAP / 2;
-        if (candlesticks != null) {
-            drawCandles(gc, 0, gapTop);
+        priceTop = 0;
+        priceBottom = gapTop;
+        oscTop = gapBottom;
+        oscBottom = h - BOTTOM_PAD;
+        long t = frameStart;
+        if (candles != null) {
+            drawCandles(gc, 0, gapTop, 0);
+            t = frameTimer.lap(FrameTimer.Phase.CANDLES, t);
         }
         if (indicators != null) {
             gc.save();
@@ -157,22 +434,34 @@ public class ChartCanvas extends Canvas {
             gc.rect(LEFT_PAD, 0, w - LEFT_PAD - RIGHT_PAD, gapTop);
             gc.closePath();
             gc.clip();
-            drawAllIndicators(gc, 0, gapTop);
+            drawAllIndicators(gc, 0, gapTop, 0);
             gc.restore();
+            t = frameTimer.lap(FrameTimer.Phase.OVERLAYS, t);
             gc.save();
             gc.beginPath();
             gc.rect(LEFT_PAD, gapBottom, w - LEFT_PAD - RIGHT_PAD, h - gapBottom - BOTTOM_PAD);
             gc.closePath();
             gc.clip();
-            drawOscillators(gc, gapBottom, h - BOTTOM_PAD);
+            drawOscillators(gc, gapBottom, h - BOTTOM_PAD, 0);
             gc.restore();
+            t = frameTimer.lap(FrameTimer.Phase.OSCILLATORS, t);
         }
         drawAxes(gc, 0, gapTop, false);
         drawAxes(gc, gapBottom, h - BOTTOM_PAD, true);
         drawSeparator(gc, subchartTop);
+        frameTimer.lap(FrameTimer.Phase.AXES, t);
         // Border is now handled by ChartPanel
-        drawHoverTooltip(gc);
         // TODO: draw annotations
+        redrawOverlay();
+        frameTimer.lap(FrameTimer.Phase.FRAME, frameStart);
+    }
+
+    public void redrawOverlay() {
+        long start = System.nanoTime();
+        GraphicsContext gc = overlay.getGraphicsContext2D();
+        gc.clearRect(0, 0, overlay.getWidth(), overlay.getHeight());
+        drawHoverTooltip(gc);
+        frameTimer.lap(FrameTimer.Phase.TOOLTIP, start);
     }
 
     private void drawSeparator(GraphicsContext gc, double y) {
@@ -184,16 +473,16 @@ public class ChartCanvas extends Canvas {
     }
 
     private void drawHoverTooltip(GraphicsContext gc) {
-        if (hoverIndex == null || candlesticks == null || hoverIndex < 0 || hoverIndex >= candlesticks.size()) return;
-        Candlestick c = candlesticks.get(hoverIndex);
-        DateTimeFormatter fmt = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm").withZone(ZoneId.systemDefault());
+        if (hoverIndex == null || candles == null || hoverIndex < viewFrom || hoverIndex >= viewTo) return;
+        int hi = hoverIndex;
         StringBuilder sb = new StringBuilder();
-        sb.append("Time: ").append(fmt.format(Instant.ofEpochMilli(c.getTimestamp()))).append("\n");
-        sb.append(String.format("O: %.2f  H: %.2f  L: %.2f  C: %.2f\nV: %.2f\n", c.getOpen(), c.getHigh(), c.getLow(), c.getClose(), c.getVolume()));
+        sb.append("Time: ").append(TIME_FORMAT.format(Instant.ofEpochMilli(candles.getTimestamp(hi)))).append("\n");
+        sb.append(String.format("O: %.2f  H: %.2f  L: %.2f  C: %.2f\nV: %.2f\n",
+                candles.getOpen(hi), candles.getHigh(hi), candles.getLow(hi), candles.getClose(hi), candles.getVolume(hi)));
         if (indicators != null && !indicators.isEmpty()) {
-            for (Indicator ind : indicators.values()) {
-                if (hoverIndex < ind.getValues().size()) {
-                    sb.append(ind.getName()).append(": ").append(String.format("%.4f", ind.getValues().get(hoverIndex))).append("\n");
+            for (IndicatorSeries ind : indicators.values()) {
+                if (hi < ind.size()) {
+                    sb.append(ind.getName()).append(": ").append(String.format("%.4f", ind.getValue(hi))).append("\n");
                 }
             }
         }
@@ -205,13 +494,10 @@ public class ChartCanvas extends Canvas {
         double w = getWidth();
         double h = getHeight();
         double chartW = w - LEFT_PAD - RIGHT_PAD;
-        double chartH = h - TOP_PAD - BOTTOM_PAD;
-        int n = candlesticks.size();
-        double candleWidth = Math.max(2, chartW / n);
-        double x = LEFT_PAD + hoverIndex * candleWidth + candleWidth / 2;
-        double min = candlesticks.stream().mapToDouble(Candlestick::getLow).min().orElse(0);
-        double max = candlesticks.stream().mapToDouble(Candlestick::getHigh).max().orElse(1);
-        double y = TOP_PAD + chartH - ((c.getClose() - min) / (max - min)) * chartH;
+        double chartH = priceBottom - priceTop;
+        double candleWidth = chartW / (viewTo - viewFrom);
+        double x = LEFT_PAD + (hi - viewFrom) * candleWidth + candleWidth / 2;
+        double y = ChartScale.toY(candles.getClose(hi), scale.getPriceMin(), scale.getPriceMax(), priceTop, chartH);
         // Draw crosshair lines
         gc.setStroke(Color.LIGHTGRAY);
         gc.setLineDashes(4);
@@ -234,29 +520,20 @@ public class ChartCanvas extends Canvas {
     }
 
     private void drawAxes(GraphicsContext gc, double top, double bottom, boolean isOscillator) {
-        if (candlesticks == null || candlesticks.isEmpty()) return;
+        if (candles == null || viewTo <= viewFrom) return;
         double w = getWidth();
         double chartW = w - LEFT_PAD - RIGHT_PAD;
         double chartH = bottom - top;
         double min, max;
         if (isOscillator) {
-            min = 0; max = 100;
-            for (String osc : OSCILLATORS) {
-                if (indicators != null && indicators.containsKey(osc)) {
-                    List<Double> vals = indicators.get(osc).getValues();
-                    if (!vals.isEmpty()) {
-                        min = Math.min(min, vals.stream().mapToDouble(Double::doubleValue).min().orElse(min));
-                        max = Math.max(max, vals.stream().mapToDouble(Double::doubleValue).max().orElse(max));
-                    }
-                }
-            }
+            min = scale.getOscMin();
+            max = scale.getOscMax();
         } else {
-            min = candlesticks.stream().mapToDouble(Candlestick::getLow).min().orElse(0);
-            max = candlesticks.stream().mapToDouble(Candlestick::getHigh).max().orElse(1);
+            min = scale.getPriceMin();
+            max = scale.getPriceMax();
         }
-        long startTs = candlesticks.get(0).getTimestamp();
-        long endTs = candlesticks.get(candlesticks.size() - 1).getTimestamp();
-        DateTimeFormatter fmt = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm").withZone(ZoneId.systemDefault());
+        long startTs = candles.getTimestamp(viewFrom);
+        long endTs = candles.getTimestamp(viewTo - 1);
         gc.setFill(Color.BLACK);
         gc.setStroke(Color.LIGHTGRAY);
         int yTicks = 5;
@@ -273,7 +550,7 @@ public class ChartCanvas extends Canvas {
             long ts = startTs + (long)((endTs - startTs) * frac);
             double x = LEFT_PAD + frac * chartW;
             gc.strokeLine(x, bottom, x, top);
-            if (!isOscillator) gc.fillText(fmt.format(Instant.ofEpochMilli(ts)), x - 40, bottom + 12);
+            if (!isOscillator) gc.fillText(TIME_FORMAT.format(Instant.ofEpochMilli(ts)), x - 40, bottom + 12);
         }
         // Draw axis lines
         gc.setStroke(Color.BLACK);
@@ -282,11 +559,11 @@ public class ChartCanvas extends Canvas {
     }
 
     private void drawLegend(GraphicsContext gc) {
-        if (candlesticks == null || candlesticks.isEmpty()) return;
-        double min = candlesticks.stream().mapToDouble(Candlestick::getLow).min().orElse(0);
-        double max = candlesticks.stream().mapToDouble(Candlestick::getHigh).max().orElse(1);
-        long startTs = candlesticks.get(0).getTimestamp();
-        long endTs = candlesticks.get(candlesticks.size() - 1).getTimestamp();
+        if (candles == null || candles.isEmpty()) return;
+        double min = scale.getPriceMin();
+        double max = scale.getPriceMax();
+        long startTs = candles.getTimestamp(0);
+        long endTs = candles.getTimestamp(candles.size() - 1);
         DateTimeFormatter fmt = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm").withZone(ZoneId.systemDefault());
         String legend = String.format("Price: %.2f - %.2f\nTime: %s - %s",
                 min, max,
@@ -300,89 +577,130 @@ public class ChartCanvas extends Canvas {
         gc.fillText(legend, 10, 18);
     }
 
-    private void drawCandles(GraphicsContext gc, double top, double bottom) {
-        if (candlesticks == null || candlesticks.isEmpty()) return;
+    // Draws the visible candles from slot firstSlot on (a candle, or a pixel column once decimated)
+    private void drawCandles(GraphicsContext gc, double top, double bottom, int firstSlot) {
+        if (candles == null || viewTo <= viewFrom) return;
         double w = getWidth();
         double chartW = w - LEFT_PAD - RIGHT_PAD;
         double chartH = bottom - top;
-        int n = candlesticks.size();
-        double candleWidth = Math.max(2, chartW / n);
-        double min = candlesticks.stream().mapToDouble(Candlestick::getLow).min().orElse(0);
-        double max = candlesticks.stream().mapToDouble(Candlestick::getHigh).max().orElse(1);
-        for (int i = 0; i < n; i++) {
-            Candlestick c = candlesticks.get(i);
-            double x = LEFT_PAD + i * candleWidth;
-            double openY = top + chartH - ((c.getOpen() - min) / (max - min)) * chartH;
-            double closeY = top + chartH - ((c.getClose() - min) / (max - min)) * chartH;
-            double highY = top + chartH - ((c.getHigh() - min) / (max - min)) * chartH;
-            double lowY = top + chartH - ((c.getLow() - min) / (max - min)) * chartH;
+        int n = viewTo - viewFrom;
+        int columns = pixelColumns(chartW);
+        double min = scale.getPriceMin();
+        double max = scale.getPriceMax();
+        if (n > columns) {
+            drawDecimatedCandles(gc, columns, firstSlot, chartW, top, chartH, min, max);
+            return;
+        }
+        geometry.layout(candles, viewFrom, viewTo, firstSlot, LEFT_PAD, chartW, top, chartH, min, max);
+        double candleWidth = geometry.slotWidth;
+        for (int k = 0; k < geometry.count; k++) {
+            double x = geometry.x[k];
+            double openY = geometry.openY[k];
+            double closeY = geometry.closeY[k];
             gc.setStroke(Color.BLACK);
-            gc.strokeLine(x + candleWidth / 2, highY, x + candleWidth / 2, lowY);
-            gc.setFill(c.getClose() >= c.getOpen() ? Color.LIMEGREEN : Color.RED);
+            gc.strokeLine(x + candleWidth / 2, geometry.highY[k], x + candleWidth / 2, geometry.lowY[k]);
+            gc.setFill(geometry.up[k] ? Color.LIMEGREEN : Color.RED);
             gc.fillRect(x, Math.min(openY, closeY), candleWidth, Math.abs(openY - closeY));
         }
     }
 
-    private void drawAllIndicators(GraphicsContext gc, double top, double bottom) {
-        if (indicators == null || indicators.isEmpty() || candlesticks == null) return;
+    // One high-low bar per pixel column, batched into a single path per colour
+    private void drawDecimatedCandles(GraphicsContext gc, int columns, int firstColumn, double chartW, double top, double chartH, double min, double max) {
+        Decimator.decimateCandles(candles, viewFrom, viewTo, columns, firstColumn, candleBuckets);
+        geometry.layout(candleBuckets, columns, firstColumn, LEFT_PAD, chartW, top, chartH, min, max);
+        double colW = geometry.slotWidth;
+        for (int pass = 0; pass < 2; pass++) {
+            boolean up = pass == 0;
+            gc.setStroke(up ? Color.LIMEGREEN : Color.RED);
+            gc.beginPath();
+            for (int k = 0; k < geometry.count; k++) {
+                if (geometry.up[k] != up) continue;
+                double x = geometry.x[k] + colW / 2;
+                double highY = geometry.highY[k];
+                gc.moveTo(x, highY);
+                gc.lineTo(x, Math.max(geometry.lowY[k], highY + 1));
+            }
+            gc.stroke();
+        }
+    }
+
+    private void drawAllIndicators(GraphicsContext gc, double top, double bottom, int firstSlot) {
+        if (indicators == null || indicators.isEmpty() || candles == null) return;
         double w = getWidth();
         double chartW = w - LEFT_PAD - RIGHT_PAD;
         double chartH = bottom - top;
-        int n = candlesticks.size();
-        double min = candlesticks.stream().mapToDouble(Candlestick::getLow).min().orElse(0);
-        double max = candlesticks.stream().mapToDouble(Candlestick::getHigh).max().orElse(1);
-        for (Indicator indicator : indicators.values()) {
+        int n = viewTo - viewFrom;
+        double min = scale.getPriceMin();
+        double max = scale.getPriceMax();
+        for (IndicatorSeries indicator : indicators.values()) {
             boolean enabled = !indicatorEnabled.containsKey(indicator.getName()) || indicatorEnabled.get(indicator.getName());
             if (!enabled) continue;
             // Only draw overlays (not oscillators)
-            boolean isOsc = false;
-            for (String osc : OSCILLATORS) if (indicator.getName().toUpperCase().contains(osc)) isOsc = true;
-            if (isOsc) continue;
-            List<Double> values = indicator.getValues();
-            if (values.size() < 2) continue;
+            if (isOscillator(indicator.getName())) continue;
+            if (indicator.size() < 2) continue;
             gc.setStroke(Color.BLUE); // TODO: color per indicator
-            gc.beginPath();
-            for (int i = 0; i < Math.min(n, values.size()); i++) {
-                double x = LEFT_PAD + i * (chartW / n) + (chartW / n) / 2;
-                double y = top + chartH - ((values.get(i) - min) / (max - min)) * chartH;
-                if (i == 0) gc.moveTo(x, y);
-                else gc.lineTo(x, y);
-            }
-            gc.stroke();
+            strokeSeries(gc, indicator, n, chartW, top, chartH, min, max, firstSlot);
         }
     }
 
-    private void drawOscillators(GraphicsContext gc, double top, double bottom) {
-        if (indicators == null || indicators.isEmpty() || candlesticks == null) return;
+    private void drawOscillators(GraphicsContext gc, double top, double bottom, int firstSlot) {
+        if (indicators == null || indicators.isEmpty() || candles == null) return;
         double w = getWidth();
         double chartW = w - LEFT_PAD - RIGHT_PAD;
         double chartH = bottom - top;
-        int n = candlesticks.size();
-        // Find min/max for all enabled oscillators
-        double min = 0, max = 100;
-        for (String osc : OSCILLATORS) {
-            if (indicators.containsKey(osc) && indicatorEnabled.getOrDefault(osc, true)) {
-                List<Double> vals = indicators.get(osc).getValues();
-                if (!vals.isEmpty()) {
-                    min = Math.min(min, vals.stream().mapToDouble(Double::doubleValue).min().orElse(min));
-                    max = Math.max(max, vals.stream().mapToDouble(Double::doubleValue).max().orElse(max));
-                }
-            }
-        }
-        for (String osc : OSCILLATORS) {
-            if (!indicators.containsKey(osc) || !indicatorEnabled.getOrDefault(osc, true)) continue;
-            List<Double> values = indicators.get(osc).getValues();
+        int n = viewTo - viewFrom;
+        double min = scale.getOscMin();
+        double max = scale.getOscMax();
+        for (IndicatorSeries values : indicators.values()) {
+            if (!isOscillator(values.getName()) || !isIndicatorEnabled(values.getName())) continue;
             if (values.size() < 2) continue;
             gc.setStroke(Color.PURPLE); // TODO: color per oscillator
-            gc.beginPath();
-            for (int i = 0; i < Math.min(n, values.size()); i++) {
-                double x = LEFT_PAD + i * (chartW / n) + (chartW / n) / 2;
-                double y = top + chartH - ((values.get(i) - min) / (max - min)) * chartH;
-                if (i == 0) gc.moveTo(x, y);
-                else gc.lineTo(x, y);
+            strokeSeries(gc, values, n, chartW, top, chartH, min, max, firstSlot);
+        }
+    }
+
+    // Polyline for the visible window laid out over n slots; above one point per pixel it falls back to a min/max envelope
+    private void strokeSeries(GraphicsContext gc, IndicatorSeries values, int n, double chartW, double top, double chartH, double min, double max, int firstSlot) {
+        int end = Math.min(viewTo, values.size());
+        int columns = pixelColumns(chartW);
+        gc.beginPath();
+        boolean penDown = false;
+        if (n > columns) {
+            Decimator.envelope(values, viewFrom, end, n, columns, firstSlot, lineBuckets);
+            double colW = chartW / columns;
+            for (int k = 0; k < lineBuckets.count; k++) {
+                if (lineBuckets.empty[k]) {
+                    penDown = false;
+                    continue;
+                }
+                double x = LEFT_PAD + (firstSlot + k) * colW + colW / 2;
+                double firstY = top + chartH - ((lineBuckets.first[k] - min) / (max - min)) * chartH;
+                if (penDown) gc.lineTo(x, firstY);
+                else gc.moveTo(x, firstY);
+                gc.lineTo(x, top + chartH - ((lineBuckets.min[k] - min) / (max - min)) * chartH);
+                gc.lineTo(x, top + chartH - ((lineBuckets.max[k] - min) / (max - min)) * chartH);
+                gc.lineTo(x, top + chartH - ((lineBuckets.last[k] - min) / (max - min)) * chartH);
+                penDown = true;
+            }
+        } else {
+            for (int i = viewFrom + firstSlot; i < end; i++) {
+                double v = values.getValue(i);
+                if (Double.isNaN(v)) {
+                    penDown = false;
+                    continue;
+                }
+                double x = LEFT_PAD + (i - viewFrom) * (chartW / n) + (chartW / n) / 2;
+                double y = top + chartH - ((v - min) / (max - min)) * chartH;
+                if (penDown) gc.lineTo(x, y);
+                else gc.moveTo(x, y);
+                penDown = true;
             }
-            gc.stroke();
         }
+        gc.stroke();
+    }
+
+    private static int pixelColumns(double chartW) {
+        return Math.max(1, (int) chartW);
     }
 
     private void drawUnifiedBorder(GraphicsContext gc, double w, double h) {
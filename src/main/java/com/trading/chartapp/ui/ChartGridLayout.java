@@ -0,0 +1,118 @@
+package com.trading.chartapp.ui;
+
+import javafx.scene.Node;
+import javafx.scene.layout.ColumnConstraints;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.Region;
+import javafx.scene.layout.RowConstraints;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Places chart panels in a GridPane. Panels are kept as children across relayouts; only
+ * their cell positions and the grid constraints change, so canvases and loaded data survive.
+ */
+public class ChartGridLayout {
+    private final GridPane gridPane;
+    private final List<Region> panels = new ArrayList<>();
+    private int cols = 0;
+    private int rows = 0;
+    private Region maximized;
+
+    public ChartGridLayout(GridPane gridPane) {
+        this.gridPane = gridPane;
+    }
+
+    public static int columnsFor(int count) {
+        if (count <= 1) return 1;
+        if (count <= 4) return 2;
+        return 3;
+    }
+
+    public static int rowsFor(int count) {
+        if (count <= 2) return 1;
+        if (count <= 6) return 2;
+        return 3;
+    }
+
+    public void add(Region panel) {
+        panels.add(panel);
+        panel.setPrefSize(0, 0);
+        panel.setMinSize(0, 0);
+        panel.setMaxSize(Double.MAX_VALUE, Double.MAX_VALUE);
+        GridPane.setFillWidth(panel, true);
+        GridPane.setFillHeight(panel, true);
+        gridPane.getChildren().add(panel);
+        relayout();
+    }
+
+    public void remove(Region panel) {
+        if (!panels.remove(panel)) return;
+        gridPane.getChildren().remove(panel);
+        if (panel == maximized) maximized = null;
+        relayout();
+    }
+
+    public List<Region> getPanels() {
+        return panels;
+    }
+
+    // Shows one panel across the whole grid; the others stay attached but hidden
+    public void maximize(Region panel) {
+        if (!panels.contains(panel)) return;
+        maximized = panel;
+        relayout();
+    }
+
+    public void restore() {
+        maximized = null;
+        relayout();
+    }
+
+    public Region getMaximized() {
+        return maximized;
+    }
+
+    private void relayout() {
+        int count = panels.size();
+        updateConstraints(columnsFor(count), rowsFor(count));
+        for (int i = 0; i < count; i++) {
+            Region panel = panels.get(i);
+            if (maximized != null) {
+                boolean shown = panel == maximized;
+                setShown(panel, shown);
+                if (shown) GridPane.setConstraints(panel, 0, 0, cols, rows);
+            } else {
+                setShown(panel, true);
+                GridPane.setConstraints(panel, i % cols, i / cols, 1, 1);
+            }
+        }
+    }
+
+    private static void setShown(Node panel, boolean shown) {
+        panel.setVisible(shown);
+        panel.setManaged(shown);
+    }
+
+    // Rebuilds the percentage constraints only when the grid shape changes
+    private void updateConstraints(int newCols, int newRows) {
+        if (newCols == cols && newRows == rows) return;
+        cols = newCols;
+        rows = newRows;
+        gridPane.getColumnConstraints().clear();
+        gridPane.getRowConstraints().clear();
+        for (int c = 0; c < cols; c++) {
+            ColumnConstraints cc = new ColumnConstraints();
+            cc.setPercentWidth(100.0 / cols);
+            cc.setHgrow(Priority.ALWAYS);
+            gridPane.getColumnConstraints().add(cc);
+        }
+        for (int r = 0; r < rows; r++) {
+            RowConstraints rc = new RowConstraints();
+            rc.setPercentHeight(100.0 / rows);
+            rc.setVgrow(Priority.ALWAYS);
+            gridPane.getRowConstraints().add(rc);
+        }
+    }
+}
@@ -36,12 +36,22 @@ public class ChartPanel extends VBox {
     private boolean isFullscreen = false;
     private Runnable onFullscreenToggle = null;
     private Stage fullscreenStage = null;
+    // The other panel on the same controller while fullscreen is open; its controls mirror this one's
+    private ChartPanel linked = null;
+    // Set while the controls are updated to show the linked panel's state, so their handlers do nothing
+    private boolean syncing = false;
+    private ProgressIndicator loadingIndicator;
 
     public ChartPanel(String title, double width, double height) {
         this(title, width, height, DEFAULT_SYMBOL);
     }
 
     public ChartPanel(String title, double width, double height, String initialSymbol) {
+        this(title, width, height, initialSymbol, null);
+    }
+
+    // With a source panel this becomes a second view of its controller and loaded data
+    private ChartPanel(String title, double width, double height, String initialSymbol, ChartPanel source) {
         this.title = title;
         setPrefSize(width, height);
         setMinSize(width, height);
@@ -50,18 +60,28 @@ public class ChartPanel extends VBox {
 
         // Initialize chart canvas and controller
         chartCanvas = new ChartCanvas(); // Use default constructor
-        controller = new ChartController(chartCanvas, getDbPathForSymbol(initialSymbol));
+        loadingIndicator = new ProgressIndicator();
+        loadingIndicator.setMaxSize(40, 40);
+        loadingIndicator.setVisible(false);
+        loadingIndicator.setMouseTransparent(true);
+        if (source == null) {
+            controller = new ChartController(chartCanvas, getDbPathForSymbol(initialSymbol));
+            controller.setOnLoadingChanged(loadingIndicator::setVisible);
+            controller.setOnDataLoaded(this::updateIndicatorToggles);
+        } else {
+            controller = source.controller;
+        }
         indicatorMenu = new MenuButton("Indicators");
         indicatorChecks = new HashMap<>();
 
         // Create controls
-        createControls(initialSymbol);
+        createControls(initialSymbol, source == null ? null : source.getChartState());
 
         // Create layout
         BorderPane chartContainer = new BorderPane();
         chartContainer.setTop(createToolPanel());
         // Wrap chartCanvas in a StackPane for precise sizing
-        javafx.scene.layout.StackPane canvasHolder = new javafx.scene.layout.StackPane(chartCanvas);
+        javafx.scene.layout.StackPane canvasHolder = new javafx.scene.layout.StackPane(chartCanvas, chartCanvas.getOverlay(), loadingIndicator);
         chartContainer.setCenter(canvasHolder);
         chartContainer.setStyle("-fx-background-color: #f8f8f8;"); // Very light gray
         VBox.setVgrow(chartContainer, javafx.scene.layout.Priority.ALWAYS); // Allow chart area to grow
@@ -79,15 +99,21 @@ public class ChartPanel extends VBox {
         setPadding(new Insets(5));
         VBox.setVgrow(chartContainer, javafx.scene.layout.Priority.ALWAYS); // Ensure chart area grows
 
-        // Initial load
-        loadInitialData(initialSymbol);
+        if (source == null) {
+            // Initial load
+            loadInitialData(initialSymbol);
+        } else {
+            controller.attachView(chartCanvas, this::updateIndicatorToggles, loadingIndicator::setVisible);
+            updateIndicatorToggles();
+        }
     }
 
     private void createControls() {
-        createControls(DEFAULT_SYMBOL);
+        createControls(DEFAULT_SYMBOL, null);
     }
 
-    private void createControls(String initialSymbol) {
+    // Controls start at the given state, if any, before their handlers are installed
+    private void createControls(String initialSymbol, ChartState state) {
         pairBox = new ComboBox<>();
         pairBox.getItems().addAll(PAIRS);
         pairBox.setValue(initialSymbol);
@@ -104,34 +130,33 @@ public class ChartPanel extends VBox {
         LocalDate weekAgo = today.minusDays(7);
         startDatePicker.setValue(weekAgo);
         endDatePicker.setValue(today);
+        if (state != null) {
+            tfBox.setValue(state.timeframe);
+            startDatePicker.setValue(state.startDate);
+            endDatePicker.setValue(state.endDate);
+        }
 
         // Set up event handlers
         pairBox.setOnAction(e -> {
-            // Recreate controller with new DB path
+            if (syncing) return;
+            // Point the controller at the new symbol's DB; connections come from the shared pool
             String selectedPair = pairBox.getValue();
-            controller = new ChartController(chartCanvas, getDbPathForSymbol(selectedPair));
-            controller.setPair(selectedPair);
-            // Immediately load data for the new symbol
-            controller.loadData(selectedPair, tfBox.getValue(),
+            controller.setDbPath(getDbPathForSymbol(selectedPair));
+            controller.requestLoad(selectedPair, tfBox.getValue(),
                 startDatePicker.getValue().atStartOfDay(java.time.ZoneId.systemDefault()).toInstant().toEpochMilli(),
                 endDatePicker.getValue().atStartOfDay(java.time.ZoneId.systemDefault()).toInstant().toEpochMilli());
-            updateIndicatorToggles();
+            mirrorToLinked();
         });
         
         tfBox.setOnAction(e -> {
+            if (syncing) return;
             controller.setTimeframe(tfBox.getValue());
-            updateIndicatorToggles();
+            mirrorToLinked();
         });
         
-        startDatePicker.setOnAction(e -> {
-            reloadWithDates();
-            updateIndicatorToggles();
-        });
+        startDatePicker.setOnAction(e -> reloadWithDates());
         
-        endDatePicker.setOnAction(e -> {
-            reloadWithDates();
-            updateIndicatorToggles();
-        });
+        endDatePicker.setOnAction(e -> reloadWithDates());
     }
 
     private SVGPath createLeftArrowIcon() {
@@ -213,7 +238,6 @@ public class ChartPanel extends VBox {
             startDatePicker.setValue(start.minusDays(days + 1));
             endDatePicker.setValue(end.minusDays(days + 1));
             reloadWithDates();
-            updateIndicatorToggles();
         });
         
         nextBtn.setOnAction(e -> {
@@ -223,7 +247,6 @@ public class ChartPanel extends VBox {
             startDatePicker.setValue(start.plusDays(days + 1));
             endDatePicker.setValue(end.plusDays(days + 1));
             reloadWithDates();
-            updateIndicatorToggles();
         });
 
         HBox controls = new HBox(5, pairBox, tfBox, prevBtn, startDatePicker, endDatePicker, nextBtn, indicatorMenu, fullscreenBtn);
@@ -242,26 +265,47 @@ public class ChartPanel extends VBox {
         LocalDate weekAgo = today.minusDays(7);
         long startMs = weekAgo.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
         long endMs = today.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
-        controller.loadData(symbol, Timeframe.ONE_MIN, startMs, endMs);
-        updateIndicatorToggles();
+        controller.requestLoad(symbol, Timeframe.ONE_MIN, startMs, endMs);
     }
 
     private void reloadWithDates() {
+        if (syncing) return;
         LocalDate start = startDatePicker.getValue();
         LocalDate end = endDatePicker.getValue();
         long startMs = start.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
         long endMs = end.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
         controller.setDateRange(startMs, endMs);
+        mirrorToLinked();
+    }
+
+    // Both panels drive the same controller, so a change made in one is shown in the other's controls
+    private void mirrorToLinked() {
+        if (linked != null) linked.showState(getChartState());
+    }
+
+    // Sets the controls to the given state without acting on it
+    private void showState(ChartState state) {
+        syncing = true;
+        try {
+            pairBox.setValue(state.pair);
+            tfBox.setValue(state.timeframe);
+            startDatePicker.setValue(state.startDate);
+            endDatePicker.setValue(state.endDate);
+        } finally {
+            syncing = false;
+        }
+        updateIndicatorToggles();
     }
 
     private void updateIndicatorToggles() {
         indicatorMenu.getItems().clear();
         indicatorChecks.clear();
-        for (String name : chartCanvas.getIndicators().keySet()) {
+        for (String name : controller.getAvailableIndicators()) {
             CheckMenuItem cb = new CheckMenuItem(name);
-            cb.setSelected(true);
+            cb.setSelected(chartCanvas.isIndicatorEnabled(name));
             cb.setOnAction(e -> {
-                chartCanvas.setIndicatorEnabled(name, cb.isSelected());
+                controller.setIndicatorEnabled(name, cb.isSelected());
+                mirrorToLinked();
             });
             indicatorMenu.getItems().add(cb);
             indicatorChecks.put(name, cb);
@@ -272,6 +316,12 @@ public class ChartPanel extends VBox {
         return controller;
     }
 
+    // Closes the fullscreen window and releases everything the controller holds, off-heap rows included
+    public void dispose() {
+        if (fullscreenStage != null) fullscreenStage.close();
+        controller.dispose();
+    }
+
     public ChartCanvas getChartCanvas() {
         return chartCanvas;
     }
@@ -299,37 +349,28 @@ public class ChartPanel extends VBox {
         state.timeframe = tfBox.getValue();
         state.startDate = startDatePicker.getValue();
         state.endDate = endDatePicker.getValue();
-        for (String name : chartCanvas.getIndicators().keySet()) {
-            state.indicatorStates.put(name, chartCanvas.getIndicators().get(name) != null &&
-                (indicatorChecks.get(name) == null || indicatorChecks.get(name).isSelected()));
+        for (String name : controller.getAvailableIndicators()) {
+            state.indicatorStates.put(name, chartCanvas.isIndicatorEnabled(name));
         }
         return state;
     }
 
+    // Setting the controls fires their handlers; the controller collapses them into one reload
     public void applyChartState(ChartState state) {
         if (state == null) return;
         pairBox.setValue(state.pair);
         tfBox.setValue(state.timeframe);
         startDatePicker.setValue(state.startDate);
         endDatePicker.setValue(state.endDate);
-        // Apply indicator states after toggles are updated
-        updateIndicatorToggles();
+        // Indicator states are kept on the canvas so they survive the asynchronous reload
         for (String name : state.indicatorStates.keySet()) {
-            if (indicatorChecks.containsKey(name)) {
-                indicatorChecks.get(name).setSelected(state.indicatorStates.get(name));
-                chartCanvas.setIndicatorEnabled(name, state.indicatorStates.get(name));
-            }
+            chartCanvas.setIndicatorEnabled(name, state.indicatorStates.get(name));
         }
-        // Trigger symbol change
-        controller.setPair(state.pair);
-        controller.setTimeframe(state.timeframe);
-        setDateRange(state.startDate, state.endDate);
-    }
-
-    private void setDateRange(java.time.LocalDate start, java.time.LocalDate end) {
-        if (start != null) startDatePicker.setValue(start);
-        if (end != null) endDatePicker.setValue(end);
-        reloadWithDates();
+        updateIndicatorToggles();
+        controller.setDbPath(getDbPathForSymbol(state.pair));
+        controller.requestLoad(state.pair, state.timeframe,
+                state.startDate.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli(),
+                state.endDate.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli());
     }
 
     private static String getDbPathForSymbol(String symbol) {
@@ -347,11 +388,15 @@ public class ChartPanel extends VBox {
         fullscreenBtn.setGraphic(fullscreen ? createMinimizeIcon() : createMaximizeIcon());
     }
 
+    /**
+     * The fullscreen window is a second view of this panel's controller, so nothing is reloaded
+     * or copied. Its controls drive the same controller, so the two panels keep each other's
+     * controls current while it is open.
+     */
     private void openFullscreenWindow() {
-        ChartPanel.ChartState state = getChartState();
-        ChartPanel fullscreenPanel = new ChartPanel(title, 1200, 800, state.pair); // Use current symbol
-        fullscreenPanel.applyChartState(state);
-        fullscreenPanel.setTitle(this.title + " (Fullscreen)");
+        ChartPanel fullscreenPanel = new ChartPanel(title + " (Fullscreen)", 1200, 800, pairBox.getValue(), this);
+        linked = fullscreenPanel;
+        fullscreenPanel.linked = this;
         fullscreenPanel.fullscreenBtn.setGraphic(createMinimizeIcon());
         fullscreenPanel.fullscreenBtn.setOnAction(e -> {
             if (fullscreenStage != null) fullscreenStage.close();
@@ -360,7 +405,12 @@ public class ChartPanel extends VBox {
         fullscreenStage.setTitle(title + " (Fullscreen)");
         fullscreenStage.setScene(new javafx.scene.Scene(fullscreenPanel, 1200, 800));
         fullscreenStage.setMaximized(true);
+        fullscreenStage.setOnHidden(e -> {
+            controller.detachView(fullscreenPanel.chartCanvas);
+            linked = null;
+            fullscreenPanel.linked = null;
+            fullscreenStage = null;
+        });
         fullscreenStage.show();
-        fullscreenStage.setOnCloseRequest(e -> fullscreenStage = null);
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,121 @@
+package com.trading.chartapp.ui;
+
+import com.trading.chartapp.model.CandleSeries;
+import com.trading.chartapp.model.IndicatorSeries;
+import com.trading.chartapp.model.RangeMinMax;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Price and oscillator value ranges for the visible index window.
+ *
+ * Range trees are built once per data set; changing the window or the set of enabled
+ * oscillators only re-queries them, so every draw routine and the hover tooltip read
+ * the same precomputed bounds instead of scanning the series.
+ */
+public class ChartScale {
+    private static final double OSC_FLOOR_MIN = 0;
+    private static final double OSC_FLOOR_MAX = 100;
+
+    private RangeMinMax candleRange;
+    private final Map<String, RangeMinMax> indicatorRanges = new HashMap<>();
+    private int from = 0;
+    private int to = 0;
+    private double priceMin = 0;
+    private double priceMax = 1;
+    private double oscMin = OSC_FLOOR_MIN;
+    private double oscMax = OSC_FLOOR_MAX;
+
+    public void setCandles(CandleSeries candles) {
+        candleRange = candles == null ? null : RangeMinMax.ofCandles(candles);
+        from = 0;
+        to = candles == null ? 0 : candles.size();
+    }
+
+    // Brings the candle tree in line with rows updated in place from firstChanged on, plus any appended rows
+    public void candlesUpdated(CandleSeries candles, int firstChanged) {
+        if (candleRange == null) {
+            setCandles(candles);
+            return;
+        }
+        int known = candleRange.size();
+        for (int i = Math.max(0, firstChanged); i < known && i < candles.size(); i++) {
+            candleRange.set(i, candles.getLow(i), candles.getHigh(i));
+        }
+        for (int i = known; i < candles.size(); i++) {
+            candleRange.append(candles.getLow(i), candles.getHigh(i));
+        }
+    }
+
+    public int getCandleCount() {
+        return candleRange == null ? 0 : candleRange.size();
+    }
+
+    public void setIndicators(Map<String, IndicatorSeries> indicators) {
+        indicatorRanges.clear();
+        if (indicators == null) return;
+        for (IndicatorSeries series : indicators.values()) {
+            putIndicator(series);
+        }
+    }
+
+    public void putIndicator(IndicatorSeries series) {
+        indicatorRanges.put(series.getName(), RangeMinMax.ofValues(series));
+    }
+
+    public void removeIndicator(String name) {
+        indicatorRanges.remove(name);
+    }
+
+    // Same as candlesUpdated for one indicator series
+    public void indicatorUpdated(IndicatorSeries series, int firstChanged) {
+        RangeMinMax range = indicatorRanges.get(series.getName());
+        if (range == null) {
+            putIndicator(series);
+            return;
+        }
+        int known = range.size();
+        for (int i = Math.max(0, firstChanged); i < known && i < series.size(); i++) {
+            range.set(i, series.getValue(i), series.getValue(i));
+        }
+        for (int i = known; i < series.size(); i++) {
+            range.append(series.getValue(i), series.getValue(i));
+        }
+    }
+
+    // Recomputes the bounds for rows [from, to) using only the indicators accepted as shown oscillators
+    public void update(int from, int to, Predicate<String> shownOscillator) {
+        this.from = from;
+        this.to = to;
+        if (candleRange != null && to > from) {
+            priceMin = candleRange.min(from, to);
+            priceMax = candleRange.max(from, to);
+        } else {
+            priceMin = 0;
+            priceMax = 1;
+        }
+        if (!(priceMax > priceMin)) {
+            priceMax = priceMin + 1;
+        }
+        oscMin = OSC_FLOOR_MIN;
+        oscMax = OSC_FLOOR_MAX;
+        for (Map.Entry<String, RangeMinMax> entry : indicatorRanges.entrySet()) {
+            if (!shownOscillator.test(entry.getKey())) continue;
+            oscMin = Math.min(oscMin, entry.getValue().min(from, to));
+            oscMax = Math.max(oscMax, entry.getValue().max(from, to));
+        }
+    }
+
+    public int getFrom() { return from; }
+    public int getTo() { return to; }
+    public double getPriceMin() { return priceMin; }
+    public double getPriceMax() { return priceMax; }
+    public double getOscMin() { return oscMin; }
+    public double getOscMax() { return oscMax; }
+
+    public static double toY(double value, double min, double max, double top, double height) {
+        return top + height - ((value - min) / (max - min)) * height;
+    }
+}
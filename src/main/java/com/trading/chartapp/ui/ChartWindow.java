@@ -34,6 +34,7 @@ public class ChartWindow {
         // Initialize chart canvas and controller
         chartCanvas = new ChartCanvas(width, height);
         controller = new ChartController(chartCanvas, DEFAULT_DB_PATH);
+        controller.setOnDataLoaded(this::updateIndicatorToggles);
         indicatorMenu = new MenuButton("Indicators");
         indicatorChecks = new HashMap<>();
 
@@ -43,7 +44,7 @@ public class ChartWindow {
         // Create layout
         BorderPane root = new BorderPane();
         root.setTop(createToolPanel());
-        root.setCenter(chartCanvas);
+        root.setCenter(new javafx.scene.layout.StackPane(chartCanvas, chartCanvas.getOverlay()));
 
         Scene scene = new Scene(root, width, height + 100); // Extra height for tools panel
         stage.setScene(scene);
@@ -69,25 +70,13 @@ public class ChartWindow {
         endDatePicker.setValue(today);
 
         // Set up event handlers
-        pairBox.setOnAction(e -> {
-            controller.setPair(pairBox.getValue());
-            updateIndicatorToggles();
-        });
+        pairBox.setOnAction(e -> controller.setPair(pairBox.getValue()));
         
-        tfBox.setOnAction(e -> {
-            controller.setTimeframe(tfBox.getValue());
-            updateIndicatorToggles();
-        });
+        tfBox.setOnAction(e -> controller.setTimeframe(tfBox.getValue()));
         
-        startDatePicker.setOnAction(e -> {
-            reloadWithDates();
-            updateIndicatorToggles();
-        });
+        startDatePicker.setOnAction(e -> reloadWithDates());
         
-        endDatePicker.setOnAction(e -> {
-            reloadWithDates();
-            updateIndicatorToggles();
-        });
+        endDatePicker.setOnAction(e -> reloadWithDates());
     }
 
     private HBox createToolPanel() {
@@ -101,7 +90,6 @@ public class ChartWindow {
             startDatePicker.setValue(start.minusDays(days + 1));
             endDatePicker.setValue(end.minusDays(days + 1));
             reloadWithDates();
-            updateIndicatorToggles();
         });
         
         nextBtn.setOnAction(e -> {
@@ -111,7 +99,6 @@ public class ChartWindow {
             startDatePicker.setValue(start.plusDays(days + 1));
             endDatePicker.setValue(end.plusDays(days + 1));
             reloadWithDates();
-            updateIndicatorToggles();
         });
 
         HBox controls = new HBox(10, pairBox, tfBox, prevBtn, startDatePicker, endDatePicker, nextBtn, indicatorMenu);
@@ -125,8 +112,7 @@ public class ChartWindow {
         LocalDate weekAgo = today.minusDays(7);
         long startMs = weekAgo.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
         long endMs = today.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
-        controller.loadData(PAIRS[0], Timeframe.ONE_MIN, startMs, endMs);
-        updateIndicatorToggles();
+        controller.requestLoad(PAIRS[0], Timeframe.ONE_MIN, startMs, endMs);
     }
 
     private void reloadWithDates() {
@@ -141,12 +127,12 @@ public class ChartWindow {
         System.out.println("Updating indicator toggles. Indicators: " + chartCanvas.getIndicators().keySet());
         indicatorMenu.getItems().clear();
         indicatorChecks.clear();
-        for (String name : chartCanvas.getIndicators().keySet()) {
+        for (String name : controller.getAvailableIndicators()) {
             CheckMenuItem cb = new CheckMenuItem(name);
-            cb.setSelected(true);
+            cb.setSelected(chartCanvas.isIndicatorEnabled(name));
             cb.setOnAction(e -> {
                 System.out.println("MenuItem toggled: " + name + " -> " + cb.isSelected());
-                chartCanvas.setIndicatorEnabled(name, cb.isSelected());
+                controller.setIndicatorEnabled(name, cb.isSelected());
             });
             indicatorMenu.getItems().add(cb);
             indicatorChecks.put(name, cb);
@@ -0,0 +1,124 @@
+package com.trading.chartapp.ui;
+
+import com.trading.chartapp.model.CandleSeries;
+import com.trading.chartapp.model.IndicatorSeries;
+
+/**
+ * Level-of-detail reduction for the render path. When there are more rows than pixel columns,
+ * rows are grouped into one bucket per column: candles become a single OHLC bar and line series
+ * become a first/min/max/last envelope, so the number of draw calls depends on the canvas width
+ * rather than on the data length.
+ *
+ * Bucket k covers rows [from + k * count / columns, from + (k + 1) * count / columns).
+ * Output buffers are reused between frames to keep redraws allocation free.
+ */
+public final class Decimator {
+
+    public static final class CandleBuckets {
+        public double[] open = new double[0];
+        public double[] high = new double[0];
+        public double[] low = new double[0];
+        public double[] close = new double[0];
+        public int count;
+
+        void ensureCapacity(int n) {
+            if (open.length < n) {
+                open = new double[n];
+                high = new double[n];
+                low = new double[n];
+                close = new double[n];
+            }
+        }
+    }
+
+    public static final class LineBuckets {
+        public double[] first = new double[0];
+        public double[] min = new double[0];
+        public double[] max = new double[0];
+        public double[] last = new double[0];
+        // Buckets with no finite value are flagged so the polyline can be broken there
+        public boolean[] empty = new boolean[0];
+        public int count;
+
+        void ensureCapacity(int n) {
+            if (first.length < n) {
+                first = new double[n];
+                min = new double[n];
+                max = new double[n];
+                last = new double[n];
+                empty = new boolean[n];
+            }
+        }
+    }
+
+    private Decimator() {
+    }
+
+    public static int bucketStart(int k, int from, int count, int columns) {
+        return from + (int) ((long) k * count / columns);
+    }
+
+    // Fills one OHLC bucket per column for rows [from, to); expects at least one row per column
+    public static int decimateCandles(CandleSeries s, int from, int to, int columns, CandleBuckets out) {
+        return decimateCandles(s, from, to, columns, 0, out);
+    }
+
+    // Same as above but only for columns from firstColumn on; out[0] holds column firstColumn
+    public static int decimateCandles(CandleSeries s, int from, int to, int columns, int firstColumn, CandleBuckets out) {
+        int count = to - from;
+        out.ensureCapacity(columns);
+        out.count = 0;
+        if (count < columns || columns <= 0) return 0;
+        for (int k = Math.max(0, firstColumn); k < columns; k++) {
+            int start = bucketStart(k, from, count, columns);
+            int end = bucketStart(k + 1, from, count, columns);
+            double hi = s.getHigh(start);
+            double lo = s.getLow(start);
+            for (int i = start + 1; i < end; i++) {
+                hi = Math.max(hi, s.getHigh(i));
+                lo = Math.min(lo, s.getLow(i));
+            }
+            int b = out.count++;
+            out.open[b] = s.getOpen(start);
+            out.close[b] = s.getClose(end - 1);
+            out.high[b] = hi;
+            out.low[b] = lo;
+        }
+        return out.count;
+    }
+
+    // Buckets rows [from, to) of an indicator laid out over {@code count} slots starting at {@code from};
+    // rows past {@code to} are ignored, so shorter indicators keep their x positions
+    public static int envelope(IndicatorSeries s, int from, int to, int count, int columns, LineBuckets out) {
+        return envelope(s, from, to, count, columns, 0, out);
+    }
+
+    // Same as above but only for columns from firstColumn on; out[0] holds column firstColumn
+    public static int envelope(IndicatorSeries s, int from, int to, int count, int columns, int firstColumn, LineBuckets out) {
+        out.ensureCapacity(columns);
+        out.count = 0;
+        if (count <= 0 || columns <= 0) return 0;
+        for (int k = Math.max(0, firstColumn); k < columns; k++) {
+            int start = bucketStart(k, from, count, columns);
+            int end = Math.min(bucketStart(k + 1, from, count, columns), to);
+            if (start >= to) break;
+            int b = out.count++;
+            double first = Double.NaN, last = Double.NaN;
+            double mn = Double.POSITIVE_INFINITY, mx = Double.NEGATIVE_INFINITY;
+            for (int i = start; i < end; i++) {
+                double v = s.getValue(i);
+                if (Double.isNaN(v)) continue;
+                if (Double.isNaN(first)) first = v;
+                last = v;
+                mn = Math.min(mn, v);
+                mx = Math.max(mx, v);
+            }
+            out.empty[b] = Double.isNaN(first);
+            out.first[b] = first;
+            out.last[b] = last;
+            out.min[b] = mn;
+            out.max[b] = mx;
+        }
+        return out.count;
+    }
+}
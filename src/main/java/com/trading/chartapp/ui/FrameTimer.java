@@ -0,0 +1,102 @@
+package com.trading.chartapp.ui;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Redraw timings of all chart canvases, kept per phase over the last
+ * {@code chartapp.frameTimer.window} samples (default 1024). Percentiles are computed when
+ * read. Published over JMX as {@code com.trading.chartapp:type=FrameTimer}.
+ */
+public final class FrameTimer implements FrameTimerMXBean {
+    public enum Phase {
+        // Whole ChartCanvas.redraw()
+        FRAME,
+        CANDLES,
+        // Indicators drawn over the price pane
+        OVERLAYS,
+        OSCILLATORS,
+        AXES,
+        TOOLTIP,
+        // Partial repaint of the newest slot by live updates
+        SLOT
+    }
+
+    private static final int WINDOW = Math.max(16, Integer.getInteger("chartapp.frameTimer.window", 1024));
+    private static final FrameTimer INSTANCE = new FrameTimer();
+
+    static {
+        try {
+            ManagementFactory.getPlatformMBeanServer()
+                    .registerMBean(INSTANCE, new ObjectName("com.trading.chartapp:type=FrameTimer"));
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    private final long[][] samples = new long[Phase.values().length][WINDOW];
+    private final long[] counts = new long[Phase.values().length];
+
+    private FrameTimer() {
+    }
+
+    public static FrameTimer getInstance() {
+        return INSTANCE;
+    }
+
+    public synchronized void record(Phase phase, long nanos) {
+        int p = phase.ordinal();
+        samples[p][(int) (counts[p] % WINDOW)] = nanos;
+        counts[p]++;
+    }
+
+    // Records the time since {@code since} and returns now, so consecutive phases can be chained
+    public long lap(Phase phase, long since) {
+        long now = System.nanoTime();
+        record(phase, now - since);
+        return now;
+    }
+
+    public synchronized PhaseStats stats(Phase phase) {
+        int p = phase.ordinal();
+        int n = (int) Math.min(counts[p], WINDOW);
+        long[] sorted = Arrays.copyOf(samples[p], n);
+        Arrays.sort(sorted);
+        return new PhaseStats(counts[p], percentile(sorted, 0.50), percentile(sorted, 0.90),
+                percentile(sorted, 0.99), n == 0 ? 0 : sorted[n - 1] / 1000.0);
+    }
+
+    @Override
+    public Map<String, PhaseStats> getPhases() {
+        Map<String, PhaseStats> result = new LinkedHashMap<>();
+        for (Phase phase : Phase.values()) {
+            result.put(phase.name(), stats(phase));
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized void reset() {
+        Arrays.fill(counts, 0);
+    }
+
+    // Nearest-rank percentile of sorted nanosecond samples, in microseconds
+    public static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) return 0;
+        int rank = (int) Math.ceil(p * sorted.length);
+        return sorted[Math.max(0, Math.min(sorted.length - 1, rank - 1))] / 1000.0;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("Frame times:");
+        for (Map.Entry<String, PhaseStats> entry : getPhases().entrySet()) {
+            if (entry.getValue().getCount() == 0) continue;
+            sb.append("\n  ").append(entry.getKey()).append(": ").append(entry.getValue());
+        }
+        return sb.toString();
+    }
+}
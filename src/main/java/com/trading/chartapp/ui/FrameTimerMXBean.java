@@ -0,0 +1,42 @@
+package com.trading.chartapp.ui;
+
+import java.beans.ConstructorProperties;
+import java.util.Map;
+
+// JMX view of {@link FrameTimer}: rolling redraw times per phase, in microseconds
+public interface FrameTimerMXBean {
+
+    final class PhaseStats {
+        private final long count;
+        private final double p50Micros;
+        private final double p90Micros;
+        private final double p99Micros;
+        private final double maxMicros;
+
+        @ConstructorProperties({"count", "p50Micros", "p90Micros", "p99Micros", "maxMicros"})
+        public PhaseStats(long count, double p50Micros, double p90Micros, double p99Micros, double maxMicros) {
+            this.count = count;
+            this.p50Micros = p50Micros;
+            this.p90Micros = p90Micros;
+            this.p99Micros = p99Micros;
+            this.maxMicros = maxMicros;
+        }
+
+        // Samples recorded since the last reset, including ones no longer in the window
+        public long getCount() { return count; }
+        public double getP50Micros() { return p50Micros; }
+        public double getP90Micros() { return p90Micros; }
+        public double getP99Micros() { return p99Micros; }
+        public double getMaxMicros() { return maxMicros; }
+
+        @Override
+        public String toString() {
+            return String.format("n=%d p50=%.0fus p90=%.0fus p99=%.0fus max=%.0fus",
+                    count, p50Micros, p90Micros, p99Micros, maxMicros);
+        }
+    }
+
+    Map<String, PhaseStats> getPhases();
+
+    void reset();
+}
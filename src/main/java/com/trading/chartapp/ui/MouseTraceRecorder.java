@@ -0,0 +1,69 @@
+package com.trading.chartapp.ui;
+
+import javafx.event.EventHandler;
+import javafx.scene.Scene;
+import javafx.scene.input.InputEvent;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.input.ScrollEvent;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Writes the mouse input of a scene to a text file for replay by the render harness, one event
+ * per line: {@code <millis since start> <move|drag|press|release|scroll> <sceneX> <sceneY> <deltaY>}.
+ */
+public class MouseTraceRecorder implements AutoCloseable {
+    private final BufferedWriter out;
+    private final Scene scene;
+    private final long started = System.nanoTime();
+    private final EventHandler<InputEvent> filter = this::record;
+
+    public MouseTraceRecorder(Scene scene, Path file) throws IOException {
+        this.scene = scene;
+        this.out = Files.newBufferedWriter(file);
+        scene.addEventFilter(InputEvent.ANY, filter);
+    }
+
+    private void record(InputEvent e) {
+        String type;
+        double x, y, deltaY = 0;
+        if (e instanceof ScrollEvent) {
+            ScrollEvent s = (ScrollEvent) e;
+            type = "scroll";
+            x = s.getSceneX();
+            y = s.getSceneY();
+            deltaY = s.getDeltaY();
+        } else if (e instanceof MouseEvent) {
+            MouseEvent m = (MouseEvent) e;
+            if (m.getEventType() == MouseEvent.MOUSE_MOVED) type = "move";
+            else if (m.getEventType() == MouseEvent.MOUSE_DRAGGED) type = "drag";
+            else if (m.getEventType() == MouseEvent.MOUSE_PRESSED) type = "press";
+            else if (m.getEventType() == MouseEvent.MOUSE_RELEASED) type = "release";
+            else return;
+            x = m.getSceneX();
+            y = m.getSceneY();
+        } else {
+            return;
+        }
+        try {
+            out.write(String.format(Locale.ROOT, "%d %s %.1f %.1f %.1f%n",
+                    (System.nanoTime() - started) / 1_000_000, type, x, y, deltaY));
+        } catch (IOException ex) {
+            ex.printStackTrace();
+        }
+    }
+
+    @Override
+    public void close() {
+        scene.removeEventFilter(InputEvent.ANY, filter);
+        try {
+            out.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+}
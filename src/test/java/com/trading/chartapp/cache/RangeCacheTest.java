@@ -0,0 +1,151 @@
+package com.trading.chartapp.cache;
+
+import com.trading.chartapp.model.CandleSeries;
+import com.trading.chartapp.model.Timeframe;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RangeCacheTest {
+    private static final long MINUTE = 60_000;
+    private static final SeriesKey BTC = new SeriesKey("BTC", Timeframe.ONE_MIN, "candles");
+    private static final SeriesKey ETH = new SeriesKey("ETH", Timeframe.ONE_MIN, "candles");
+    private static final SeriesKey SOL = new SeriesKey("SOL", Timeframe.ONE_MIN, "candles");
+
+    // Ranges the loader was asked for, as {start, end}
+    private final List<long[]> loads = new ArrayList<>();
+
+    // One bar per minute in [start, end]; the close encodes the open time so rows can be checked
+    private RangeCache.Loader<CandleSeries> loader() {
+        return (start, end) -> {
+            loads.add(new long[]{start, end});
+            CandleSeries s = new CandleSeries();
+            for (long t = (start + MINUTE - 1) / MINUTE * MINUTE; t <= end; t += MINUTE) {
+                s.add(t, 1, 2, 0.5, t / MINUTE, 1);
+            }
+            s.trimToSize();
+            return s;
+        };
+    }
+
+    private static void assertMinutes(CandleSeries s, long fromMinute, long toMinute) {
+        assertEquals(toMinute - fromMinute + 1, s.size());
+        for (int i = 0; i < s.size(); i++) {
+            assertEquals((fromMinute + i) * MINUTE, s.getTimestamp(i));
+            assertEquals(fromMinute + i, s.getClose(i));
+        }
+    }
+
+    @Test
+    void servesContainedRangesFromMemory() throws Exception {
+        RangeCache<CandleSeries> cache = new RangeCache<>("test", Long.MAX_VALUE);
+        assertMinutes(cache.get(BTC, 0, 99 * MINUTE, loader()), 0, 99);
+        assertMinutes(cache.get(BTC, 10 * MINUTE, 50 * MINUTE, loader()), 10, 50);
+        assertEquals(1, loads.size());
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertTrue(cache.covers(BTC, 0, 99 * MINUTE));
+        assertFalse(cache.covers(BTC, 0, 100 * MINUTE));
+        assertFalse(cache.covers(ETH, 0, MINUTE));
+    }
+
+    @Test
+    void loadsOnlyTheGapsAndMergesSegments() throws Exception {
+        RangeCache<CandleSeries> cache = new RangeCache<>("test", Long.MAX_VALUE);
+        cache.get(BTC, 0, 99 * MINUTE, loader());
+        cache.get(BTC, 200 * MINUTE, 299 * MINUTE, loader());
+        assertEquals(2, cache.getSegmentCount());
+        loads.clear();
+
+        assertMinutes(cache.get(BTC, 50 * MINUTE, 250 * MINUTE, loader()), 50, 250);
+        assertEquals(1, loads.size());
+        // Segments cover inclusive millisecond ranges, so the gap starts right after the first one
+        assertEquals(99 * MINUTE + 1, loads.get(0)[0]);
+        assertEquals(200 * MINUTE - 1, loads.get(0)[1]);
+        // The gap joined both neighbours into one segment
+        assertEquals(1, cache.getSegmentCount());
+        assertTrue(cache.covers(BTC, 0, 299 * MINUTE));
+    }
+
+    @Test
+    void neverHandsOutTheCachedInstance() throws Exception {
+        RangeCache<CandleSeries> cache = new RangeCache<>("test", Long.MAX_VALUE);
+        CandleSeries first = cache.get(BTC, 0, 9 * MINUTE, loader());
+        first.updateLast(0, 0, 0, -1, 0);
+        assertMinutes(cache.get(BTC, 0, 9 * MINUTE, loader()), 0, 9);
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedSegmentsToStayInBudget() throws Exception {
+        long segmentBytes = loader().load(0, 99 * MINUTE).estimatedBytes();
+        RangeCache<CandleSeries> cache = new RangeCache<>("test", 2 * segmentBytes + segmentBytes / 2);
+        cache.get(BTC, 0, 99 * MINUTE, loader());
+        cache.get(ETH, 0, 99 * MINUTE, loader());
+        assertEquals(2 * segmentBytes, cache.getUsedBytes());
+        // Touching BTC leaves ETH as the least recently used
+        cache.get(BTC, 0, 10 * MINUTE, loader());
+        cache.get(SOL, 0, 99 * MINUTE, loader());
+
+        assertEquals(1, cache.getEvictions());
+        assertEquals(2, cache.getSegmentCount());
+        assertEquals(2 * segmentBytes, cache.getUsedBytes());
+        assertTrue(cache.getUsedBytes() <= cache.getMaxBytes());
+        assertTrue(cache.covers(BTC, 0, 99 * MINUTE));
+        assertFalse(cache.covers(ETH, 0, 99 * MINUTE));
+        assertTrue(cache.covers(SOL, 0, 99 * MINUTE));
+    }
+
+    @Test
+    void mergedSegmentsAreChargedOnce() throws Exception {
+        RangeCache<CandleSeries> cache = new RangeCache<>("test", Long.MAX_VALUE);
+        cache.get(BTC, 0, 99 * MINUTE, loader());
+        cache.get(BTC, 100 * MINUTE, 199 * MINUTE, loader());
+        CandleSeries whole = cache.get(BTC, 0, 199 * MINUTE, loader());
+        assertEquals(1, cache.getSegmentCount());
+        // The stored segment is the merge of both loads, which is trimmed like the loader's output
+        CandleSeries expected = loader().load(0, 99 * MINUTE).merge(loader().load(100 * MINUTE, 199 * MINUTE));
+        assertEquals(expected.estimatedBytes(), cache.getUsedBytes());
+        assertMinutes(whole, 0, 199);
+    }
+
+    @Test
+    void invalidateAndClearReturnTheirBytes() throws Exception {
+        RangeCache<CandleSeries> cache = new RangeCache<>("test", Long.MAX_VALUE);
+        cache.get(BTC, 0, 99 * MINUTE, loader());
+        cache.get(ETH, 0, 49 * MINUTE, loader());
+        long eth = cache.getUsedBytes() - loader().load(0, 99 * MINUTE).estimatedBytes();
+        cache.invalidate(BTC);
+        assertEquals(eth, cache.getUsedBytes());
+        assertEquals(1, cache.getSegmentCount());
+        cache.clear();
+        assertEquals(0, cache.getUsedBytes());
+        assertEquals(0, cache.getSegmentCount());
+    }
+
+    @Test
+    void keepsACompactedSegmentOnlyWhenItIsSmaller() throws Exception {
+        List<CandleSeries> offered = new ArrayList<>();
+        // A "compaction" that returns a larger copy must be ignored
+        RangeCache<CandleSeries> larger = new RangeCache<>("test", Long.MAX_VALUE, (key, s) -> {
+            offered.add(s);
+            CandleSeries bigger = new CandleSeries(s.size() * 4);
+            for (int i = 0; i < s.size(); i++) {
+                bigger.add(s.getTimestamp(i), s.getOpen(i), s.getHigh(i), s.getLow(i), s.getClose(i), s.getVolume(i));
+            }
+            return bigger;
+        });
+        larger.get(BTC, 0, 99 * MINUTE, loader());
+        assertEquals(1, offered.size());
+        assertEquals(offered.get(0).estimatedBytes(), larger.getUsedBytes());
+
+        RangeCache<CandleSeries> smaller = new RangeCache<>("test", Long.MAX_VALUE, (key, s) -> s.slice(0, s.size() / 2));
+        CandleSeries loaded = loader().load(0, 99 * MINUTE);
+        smaller.put(BTC, 0, 99 * MINUTE, loaded);
+        assertTrue(smaller.getUsedBytes() < loaded.estimatedBytes());
+    }
+}
@@ -0,0 +1,233 @@
+package com.trading.chartapp.indicator;
+
+import com.trading.chartapp.model.CandleSeries;
+import com.trading.chartapp.model.Timeframe;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Each streaming indicator against a direct computation from the whole close/high/low arrays,
+ * written from the textbook definitions.
+ */
+class IndicatorsTest {
+    private static final int PERIOD = 14;
+
+    private static CandleSeries walk(int n, long seed) {
+        Random random = new Random(seed);
+        CandleSeries s = new CandleSeries(n);
+        double price = 100;
+        for (int i = 0; i < n; i++) {
+            double open = price;
+            double close = Math.max(1, open + random.nextGaussian());
+            double high = Math.max(open, close) + random.nextDouble();
+            double low = Math.min(open, close) - random.nextDouble();
+            s.add(i * 60_000L, open, high, low, close, 1);
+            price = close;
+        }
+        return s;
+    }
+
+    private static double[] closes(CandleSeries s) {
+        double[] out = new double[s.size()];
+        for (int i = 0; i < out.length; i++) out[i] = s.getClose(i);
+        return out;
+    }
+
+    // Runs the indicator bar by bar and collects every output column
+    private static double[][] stream(StreamingIndicator indicator, CandleSeries s) {
+        double[][] columns = new double[indicator.outputCount()][s.size()];
+        double[] out = new double[indicator.outputCount()];
+        for (int i = 0; i < s.size(); i++) {
+            indicator.next(s.getHigh(i), s.getLow(i), s.getClose(i), out);
+            for (int k = 0; k < out.length; k++) columns[k][i] = out[k];
+        }
+        return columns;
+    }
+
+    private static void assertColumn(double[] expected, double[] actual, String name) {
+        assertEquals(expected.length, actual.length);
+        for (int i = 0; i < expected.length; i++) {
+            if (Double.isNaN(expected[i])) {
+                assertTrue(Double.isNaN(actual[i]), name + " should be NaN at " + i);
+            } else {
+                assertEquals(expected[i], actual[i], 1e-9 * Math.max(1, Math.abs(expected[i])), name + " at " + i);
+            }
+        }
+    }
+
+    private static double[] nans(int n) {
+        double[] out = new double[n];
+        java.util.Arrays.fill(out, Double.NaN);
+        return out;
+    }
+
+    static double[] naiveSma(double[] x, int p) {
+        double[] out = nans(x.length);
+        for (int i = p - 1; i < x.length; i++) {
+            double sum = 0;
+            for (int j = i - p + 1; j <= i; j++) sum += x[j];
+            out[i] = sum / p;
+        }
+        return out;
+    }
+
+    // Seeded with the simple average of the first p defined values
+    static double[] naiveEma(double[] x, int p) {
+        double[] out = nans(x.length);
+        int first = 0;
+        while (first < x.length && Double.isNaN(x[first])) first++;
+        if (first + p > x.length) return out;
+        double sum = 0;
+        for (int j = first; j < first + p; j++) sum += x[j];
+        double value = sum / p;
+        out[first + p - 1] = value;
+        double alpha = 2.0 / (p + 1);
+        for (int i = first + p; i < x.length; i++) {
+            value = alpha * x[i] + (1 - alpha) * value;
+            out[i] = value;
+        }
+        return out;
+    }
+
+    static double[] naiveRsi(double[] x, int p) {
+        double[] out = nans(x.length);
+        if (x.length <= p) return out;
+        double gain = 0, loss = 0;
+        for (int i = 1; i <= p; i++) {
+            double d = x[i] - x[i - 1];
+            gain += Math.max(d, 0);
+            loss += Math.max(-d, 0);
+        }
+        gain /= p;
+        loss /= p;
+        out[p] = loss == 0 ? 100 : 100 - 100 / (1 + gain / loss);
+        for (int i = p + 1; i < x.length; i++) {
+            double d = x[i] - x[i - 1];
+            gain = (gain * (p - 1) + Math.max(d, 0)) / p;
+            loss = (loss * (p - 1) + Math.max(-d, 0)) / p;
+            out[i] = loss == 0 ? 100 : 100 - 100 / (1 + gain / loss);
+        }
+        return out;
+    }
+
+    static double[] naiveAtr(CandleSeries s, int p) {
+        int n = s.size();
+        double[] tr = new double[n];
+        for (int i = 0; i < n; i++) {
+            double h = s.getHigh(i), l = s.getLow(i);
+            tr[i] = i == 0 ? h - l
+                    : Math.max(h - l, Math.max(Math.abs(h - s.getClose(i - 1)), Math.abs(l - s.getClose(i - 1))));
+        }
+        double[] out = nans(n);
+        if (n < p) return out;
+        double value = 0;
+        for (int i = 0; i < p; i++) value += tr[i];
+        value /= p;
+        out[p - 1] = value;
+        for (int i = p; i < n; i++) {
+            value = (value * (p - 1) + tr[i]) / p;
+            out[i] = value;
+        }
+        return out;
+    }
+
+    @Test
+    void smaMatchesWindowMean() {
+        CandleSeries s = walk(500, 1);
+        assertColumn(naiveSma(closes(s), PERIOD), stream(new Sma(PERIOD), s)[0], "SMA");
+    }
+
+    @Test
+    void emaMatchesRecursion() {
+        CandleSeries s = walk(500, 2);
+        assertColumn(naiveEma(closes(s), PERIOD), stream(new Ema(PERIOD), s)[0], "EMA");
+    }
+
+    @Test
+    void rsiMatchesWilder() {
+        CandleSeries s = walk(500, 3);
+        assertColumn(naiveRsi(closes(s), PERIOD), stream(new Rsi(PERIOD), s)[0], "RSI");
+    }
+
+    @Test
+    void macdMatchesDifferenceOfEmas() {
+        CandleSeries s = walk(500, 4);
+        double[] x = closes(s);
+        double[] fast = naiveEma(x, 12);
+        double[] slow = naiveEma(x, 26);
+        double[] macd = new double[x.length];
+        for (int i = 0; i < x.length; i++) macd[i] = fast[i] - slow[i];
+        double[] signal = naiveEma(macd, 9);
+        double[] hist = new double[x.length];
+        for (int i = 0; i < x.length; i++) hist[i] = macd[i] - signal[i];
+        double[][] actual = stream(new Macd(12, 26, 9), s);
+        assertColumn(macd, actual[0], "MACD");
+        assertColumn(signal, actual[1], "MACD signal");
+        assertColumn(hist, actual[2], "MACD histogram");
+    }
+
+    @Test
+    void bollingerMatchesPopulationDeviation() {
+        CandleSeries s = walk(500, 5);
+        double[] x = closes(s);
+        double[] mean = naiveSma(x, PERIOD);
+        double[] upper = nans(x.length);
+        double[] lower = nans(x.length);
+        for (int i = PERIOD - 1; i < x.length; i++) {
+            double sq = 0;
+            for (int j = i - PERIOD + 1; j <= i; j++) sq += (x[j] - mean[i]) * (x[j] - mean[i]);
+            double deviation = Math.sqrt(sq / PERIOD);
+            upper[i] = mean[i] + 2 * deviation;
+            lower[i] = mean[i] - 2 * deviation;
+        }
+        double[][] actual = stream(new Bollinger(PERIOD, 2), s);
+        assertColumn(upper, actual[0], "BB upper");
+        assertColumn(mean, actual[1], "BB middle");
+        assertColumn(lower, actual[2], "BB lower");
+    }
+
+    @Test
+    void atrMatchesWilder() {
+        CandleSeries s = walk(500, 6);
+        assertColumn(naiveAtr(s, PERIOD), stream(new Atr(PERIOD), s)[0], "ATR");
+    }
+
+    @Test
+    void copyContinuesIndependently() {
+        CandleSeries s = walk(100, 7);
+        for (IndicatorType type : IndicatorType.values()) {
+            StreamingIndicator a = type.create(PERIOD);
+            double[] out = new double[a.outputCount()];
+            for (int i = 0; i < 60; i++) a.next(s.getHigh(i), s.getLow(i), s.getClose(i), out);
+            StreamingIndicator b = a.copy();
+            // A forming bar fed to the copy must not move the original
+            b.next(1e6, 0, 5e5, new double[out.length]);
+            double[][] expected = stream(type.create(PERIOD), s);
+            for (int i = 60; i < 100; i++) {
+                a.next(s.getHigh(i), s.getLow(i), s.getClose(i), out);
+                for (int k = 0; k < out.length; k++) {
+                    assertEquals(expected[k][i], out[k], 1e-9 * Math.max(1, Math.abs(expected[k][i])), type + " at " + i);
+                }
+            }
+        }
+    }
+
+    @Test
+    void parallelComputationMatchesStreaming() {
+        // Long enough that the fixed-window indicators are split into chunks
+        CandleSeries s = walk(120_000, 8);
+        Map<IndicatorType, IndicatorComputer.Result> results = IndicatorComputer.compute(
+                "TEST", Timeframe.ONE_MIN, s, List.of(IndicatorType.values()), PERIOD);
+        for (IndicatorType type : IndicatorType.values()) {
+            double[][] expected = stream(type.create(PERIOD), s);
+            double[][] actual = results.get(type).columns;
+            for (int k = 0; k < expected.length; k++) assertColumn(expected[k], actual[k], type.output(k));
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.trading.chartapp.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompactCandlesTest {
+    private static final long STEP = 60_000;
+    private static final long START = 1_700_000_040_000L;
+
+    // Random walk on a 0.01 tick; volumes in 0.001 lots unless exactVolume asks for arbitrary doubles
+    private static CandleSeries walk(int slots, Set<Integer> missing, double price, double move, boolean exactVolume) {
+        Random random = new Random(7);
+        CandleSeries s = new CandleSeries();
+        for (int slot = 0; slot < slots; slot++) {
+            double open = price;
+            double close = tick(Math.max(0.01, open + random.nextGaussian() * move));
+            double high = tick(Math.max(open, close) + random.nextDouble() * move);
+            double low = tick(Math.max(0.01, Math.min(open, close) - random.nextDouble() * move));
+            double volume = exactVolume ? random.nextDouble() * 100 : Math.round(random.nextDouble() * 100_000) / 1000.0;
+            price = close;
+            if (missing.contains(slot)) continue;
+            s.add(START + slot * STEP, open, high, low, close, volume);
+        }
+        return s;
+    }
+
+    private static double tick(double price) {
+        return Math.round(price * 100) / 100.0;
+    }
+
+    private static void assertSameRows(CandleSeries expected, CandleSeries actual, int from) {
+        for (int i = 0; i < actual.size(); i++) {
+            int j = from + i;
+            assertEquals(expected.getTimestamp(j), actual.getTimestamp(i), "timestamp " + j);
+            assertEquals(expected.getOpen(j), actual.getOpen(i), "open " + j);
+            assertEquals(expected.getHigh(j), actual.getHigh(i), "high " + j);
+            assertEquals(expected.getLow(j), actual.getLow(i), "low " + j);
+            assertEquals(expected.getClose(j), actual.getClose(i), "close " + j);
+            assertEquals(expected.getVolume(j), actual.getVolume(i), "volume " + j);
+        }
+    }
+
+    @Test
+    void roundTripsWithoutGaps() {
+        CandleSeries s = walk(1000, Set.of(), 30_000, 15, false);
+        CandleSeries encoded = CompactCandles.encode(s, STEP);
+        assertNotNull(encoded);
+        assertEquals(s.size(), encoded.size());
+        assertSameRows(s, encoded, 0);
+    }
+
+    @Test
+    void roundTripsWithGapsAcrossBitmapWords() {
+        // Missing slots at the edges of the 64-slot bitmap words and a run spanning a whole word
+        Set<Integer> missing = new java.util.HashSet<>(Set.of(1, 62, 63, 64, 127, 128, 129, 191, 255, 256, 500));
+        for (int slot = 300; slot < 380; slot++) missing.add(slot);
+        CandleSeries s = walk(700, missing, 30_000, 15, false);
+        CandleSeries encoded = CompactCandles.encode(s, STEP);
+        assertNotNull(encoded);
+        assertEquals(s.size(), encoded.size());
+        assertSameRows(s, encoded, 0);
+        // Slices start at a row, not a slot
+        assertSameRows(s, encoded.slice(60, 400), 60);
+        assertSameRows(s, encoded.slice(s.size() - 1, s.size()), s.size() - 1);
+    }
+
+    @Test
+    void widePathRoundTrips() {
+        // Moves of many thousand ticks do not fit the 16-bit offsets
+        CandleSeries narrow = CompactCandles.encode(walk(500, Set.of(), 30_000, 15, false), STEP);
+        CandleSeries s = walk(500, Set.of(), 30_000, 2_000, false);
+        CandleSeries encoded = CompactCandles.encode(s, STEP);
+        assertNotNull(encoded);
+        assertSameRows(s, encoded, 0);
+        assertTrue(encoded.estimatedBytes() > narrow.estimatedBytes());
+    }
+
+    @Test
+    void arbitraryVolumesRoundTripExactly() {
+        CandleSeries lots = CompactCandles.encode(walk(500, Set.of(), 30_000, 15, false), STEP);
+        CandleSeries s = walk(500, Set.of(3, 64, 65), 30_000, 15, true);
+        CandleSeries encoded = CompactCandles.encode(s, STEP);
+        assertNotNull(encoded);
+        assertSameRows(s, encoded, 0);
+        assertTrue(encoded.estimatedBytes() > lots.estimatedBytes());
+    }
+
+    @Test
+    void largeVolumesRoundTripExactly() {
+        CandleSeries s = new CandleSeries();
+        for (int i = 0; i < 100; i++) s.add(START + i * STEP, 1.5, 2.5, 1.0, 2.0, 3e7 + i * 0.25);
+        CandleSeries encoded = CompactCandles.encode(s, STEP);
+        assertNotNull(encoded);
+        assertSameRows(s, encoded, 0);
+    }
+
+    @Test
+    void leavesSeriesThatDoNotFit() {
+        CandleSeries unaligned = new CandleSeries();
+        unaligned.add(START, 1, 1, 1, 1, 1);
+        unaligned.add(START + STEP + 1, 1, 1, 1, 1, 1);
+        assertNull(CompactCandles.encode(unaligned, STEP));
+
+        CandleSeries irrational = new CandleSeries();
+        irrational.add(START, Math.PI, Math.PI, Math.PI, Math.PI, 1);
+        assertNull(CompactCandles.encode(irrational, STEP));
+
+        assertNull(CompactCandles.encode(new CandleSeries(), STEP));
+    }
+
+    @Test
+    void writeToEncodedSeriesLeavesOtherViewsAlone() {
+        CandleSeries s = walk(200, Set.of(10), 30_000, 15, false);
+        CandleSeries encoded = CompactCandles.encode(s, STEP);
+        CandleSeries view = encoded.slice(0, encoded.size());
+        view.updateLast(1, 2, 0.5, 1.5, 99);
+        assertEquals(99, view.getVolume(view.size() - 1));
+        assertSameRows(s, encoded, 0);
+    }
+
+    @Test
+    void mapsPricesLikeTheGenericMapping() {
+        CandleSeries s = walk(300, Set.of(5, 70), 30_000, 15, false);
+        CandleSeries encoded = CompactCandles.encode(s, STEP);
+        int n = 250;
+        double[][] expected = new double[4][n];
+        double[][] actual = new double[4][n];
+        boolean[] expectedUp = new boolean[n];
+        boolean[] actualUp = new boolean[n];
+        s.mapPrices(20, 20 + n, 500, 29_000, 0.37, expected[0], expected[1], expected[2], expected[3], expectedUp);
+        encoded.mapPrices(20, 20 + n, 500, 29_000, 0.37, actual[0], actual[1], actual[2], actual[3], actualUp);
+        for (int k = 0; k < n; k++) {
+            for (int c = 0; c < 4; c++) assertEquals(expected[c][k], actual[c][k], 1e-6);
+            assertEquals(expectedUp[k], actualUp[k]);
+        }
+    }
+}
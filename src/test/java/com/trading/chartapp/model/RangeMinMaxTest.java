@@ -0,0 +1,104 @@
+package com.trading.chartapp.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RangeMinMaxTest {
+
+    // Lows and highs kept alongside the tree and scanned linearly for the expected answers
+    private final List<double[]> rows = new ArrayList<>();
+
+    private double scanMin(int from, int to) {
+        double result = Double.POSITIVE_INFINITY;
+        for (int i = Math.max(0, from); i < Math.min(rows.size(), to); i++) {
+            if (!Double.isNaN(rows.get(i)[0])) result = Math.min(result, rows.get(i)[0]);
+        }
+        return result;
+    }
+
+    private double scanMax(int from, int to) {
+        double result = Double.NEGATIVE_INFINITY;
+        for (int i = Math.max(0, from); i < Math.min(rows.size(), to); i++) {
+            if (!Double.isNaN(rows.get(i)[1])) result = Math.max(result, rows.get(i)[1]);
+        }
+        return result;
+    }
+
+    private void assertAllRanges(RangeMinMax tree, Random random) {
+        int n = rows.size();
+        assertEquals(n, tree.size());
+        for (int q = 0; q < 300; q++) {
+            int from = random.nextInt(n + 2) - 1;
+            int to = from + random.nextInt(n + 2);
+            assertEquals(scanMin(from, to), tree.min(from, to), "min [" + from + ", " + to + ")");
+            assertEquals(scanMax(from, to), tree.max(from, to), "max [" + from + ", " + to + ")");
+        }
+        assertEquals(scanMin(0, n), tree.min(0, n));
+        assertEquals(scanMax(0, n), tree.max(0, n));
+    }
+
+    private double[] randomRow(Random random) {
+        double low = random.nextInt(10) == 0 ? Double.NaN : random.nextDouble() * 100;
+        double high = random.nextInt(10) == 0 ? Double.NaN : 100 + random.nextDouble() * 100;
+        return new double[]{low, high};
+    }
+
+    @Test
+    void matchesLinearScanAfterBuild() {
+        Random random = new Random(1);
+        for (int i = 0; i < 77; i++) rows.add(randomRow(random));
+        RangeMinMax tree = new RangeMinMax(rows.size(), i -> rows.get(i)[0], i -> rows.get(i)[1]);
+        assertAllRanges(tree, random);
+    }
+
+    @Test
+    void matchesLinearScanAfterAppendsAndSets() {
+        Random random = new Random(2);
+        rows.add(randomRow(random));
+        RangeMinMax tree = new RangeMinMax(1, i -> rows.get(i)[0], i -> rows.get(i)[1]);
+        // Appends grow the leaf array several times; sets touch old and new rows alike
+        for (int step = 0; step < 300; step++) {
+            if (random.nextInt(3) == 0) {
+                int i = random.nextInt(rows.size());
+                double[] row = randomRow(random);
+                rows.set(i, row);
+                tree.set(i, row[0], row[1]);
+            } else {
+                double[] row = randomRow(random);
+                rows.add(row);
+                tree.append(row[0], row[1]);
+            }
+            if (step % 25 == 0) assertAllRanges(tree, random);
+        }
+        assertAllRanges(tree, random);
+    }
+
+    @Test
+    void emptyAndAllNaNRangesAreInfinite() {
+        RangeMinMax empty = new RangeMinMax(0, i -> 0, i -> 0);
+        assertEquals(Double.POSITIVE_INFINITY, empty.min(0, 0));
+        assertEquals(Double.NEGATIVE_INFINITY, empty.max(0, 10));
+
+        RangeMinMax nan = new RangeMinMax(5, i -> Double.NaN, i -> Double.NaN);
+        assertEquals(Double.POSITIVE_INFINITY, nan.min(0, 5));
+        assertEquals(Double.NEGATIVE_INFINITY, nan.max(0, 5));
+    }
+
+    @Test
+    void ofCandlesUsesLowsAndHighs() {
+        CandleSeries candles = new CandleSeries();
+        candles.add(0, 5, 9, 4, 6, 1);
+        candles.add(60_000, 6, 12, 3, 8, 1);
+        candles.add(120_000, 8, 10, 7, 9, 1);
+        RangeMinMax tree = RangeMinMax.ofCandles(candles);
+        assertEquals(3, tree.min(0, 3));
+        assertEquals(12, tree.max(0, 3));
+        assertEquals(7, tree.min(2, 3));
+        assertEquals(10, tree.max(2, 3));
+    }
+}
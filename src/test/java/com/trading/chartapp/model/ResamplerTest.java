@@ -0,0 +1,107 @@
+package com.trading.chartapp.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ResamplerTest {
+    private static final long MINUTE = 60_000;
+
+    // 1m bars from an unaligned start, with scattered missing minutes and one missing hour
+    private static CandleSeries minutes(long start, int count) {
+        Random random = new Random(3);
+        CandleSeries s = new CandleSeries();
+        double price = 100;
+        for (int i = 0; i < count; i++) {
+            double open = price;
+            double close = open + random.nextGaussian();
+            price = close;
+            if (random.nextInt(20) == 0 || (i >= 300 && i < 360)) continue;
+            s.add(start + i * MINUTE, open, Math.max(open, close) + random.nextDouble(),
+                    Math.min(open, close) - random.nextDouble(), close, random.nextInt(1000));
+        }
+        return s;
+    }
+
+    // Groups rows by the epoch-aligned bar they fall in
+    private static CandleSeries naive(CandleSeries source, Timeframe target) {
+        Map<Long, double[]> bars = new TreeMap<>();
+        for (int i = 0; i < source.size(); i++) {
+            long bar = Math.floorDiv(source.getTimestamp(i), target.getMillis()) * target.getMillis();
+            double[] b = bars.get(bar);
+            if (b == null) {
+                bars.put(bar, new double[]{source.getOpen(i), source.getHigh(i), source.getLow(i),
+                        source.getClose(i), source.getVolume(i)});
+            } else {
+                b[1] = Math.max(b[1], source.getHigh(i));
+                b[2] = Math.min(b[2], source.getLow(i));
+                b[3] = source.getClose(i);
+                b[4] += source.getVolume(i);
+            }
+        }
+        CandleSeries result = new CandleSeries();
+        bars.forEach((t, b) -> result.add(t, b[0], b[1], b[2], b[3], b[4]));
+        return result;
+    }
+
+    private static void assertSameBars(CandleSeries expected, CandleSeries actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.getTimestamp(i), actual.getTimestamp(i), "open time " + i);
+            assertEquals(expected.getOpen(i), actual.getOpen(i), "open " + i);
+            assertEquals(expected.getHigh(i), actual.getHigh(i), "high " + i);
+            assertEquals(expected.getLow(i), actual.getLow(i), "low " + i);
+            assertEquals(expected.getClose(i), actual.getClose(i), "close " + i);
+            assertEquals(expected.getVolume(i), actual.getVolume(i), "volume " + i);
+        }
+    }
+
+    @Test
+    void barsAreAlignedToEpochMultiples() {
+        CandleSeries source = minutes(1_700_000_000_000L + 37 * MINUTE, 3 * 24 * 60);
+        for (Timeframe target : Timeframe.values()) {
+            if (target == Timeframe.ONE_MIN) continue;
+            CandleSeries bars = Resampler.resample(source, target);
+            for (int i = 0; i < bars.size(); i++) {
+                assertEquals(0, Math.floorMod(bars.getTimestamp(i), target.getMillis()), target + " bar " + i);
+            }
+            assertSameBars(naive(source, target), bars);
+        }
+    }
+
+    @Test
+    void alignsTimestampsBeforeTheEpoch() {
+        CandleSeries source = minutes(-90 * MINUTE, 240);
+        assertSameBars(naive(source, Timeframe.ONE_HOUR), Resampler.resample(source, Timeframe.ONE_HOUR));
+    }
+
+    @Test
+    void eachLevelResamplesFromTheNextFinerOne() {
+        CandleSeries source = minutes(1_700_000_000_000L + 11 * MINUTE, 2 * 24 * 60);
+        for (Timeframe target : Timeframe.values()) {
+            Timeframe finer = target.getResampleSource();
+            if (finer == null) continue;
+            CandleSeries viaFiner = Resampler.resample(Resampler.resample(source, finer), target);
+            assertSameBars(Resampler.resample(source, target), viaFiner);
+        }
+    }
+
+    @Test
+    void resampleSourcesTileTheirTarget() {
+        assertNull(Timeframe.ONE_MIN.getResampleSource());
+        assertEquals(Timeframe.FIFTEEN_MIN, Timeframe.THIRTY_MIN.getResampleSource());
+        assertEquals(Timeframe.ONE_HOUR, Timeframe.TWO_HOUR.getResampleSource());
+        assertEquals(Timeframe.TWO_HOUR, Timeframe.FOUR_HOUR.getResampleSource());
+        assertEquals(Timeframe.FOUR_HOUR, Timeframe.ONE_DAY.getResampleSource());
+    }
+
+    @Test
+    void emptySourceGivesNoBars() {
+        assertEquals(0, Resampler.resample(new CandleSeries(), Timeframe.ONE_HOUR).size());
+    }
+}